@@ -0,0 +1,96 @@
+import benchmarks.Kernels;
+import benchmarks.SyntheticGraphs;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+// Binds the benchmarks in the benchmarks package to the default-package algorithms (see Kernels).
+// Inputs are built once per trial; kernels that sort their input in place get a fresh copy per call.
+public class GraphKernels implements Kernels {
+
+    @Override
+    public Kernels.Components components(SyntheticGraphs g) {
+        // Same shape Baseline.main builds from an edge list
+        Map<String, List<String>> adjacency = new HashMap<>();
+        for (int i = 0; i < g.edges(); i++) {
+            String u = Integer.toString(g.src[i]), v = Integer.toString(g.dst[i]);
+            adjacency.computeIfAbsent(u, k -> new ArrayList<>()).add(v);
+            adjacency.computeIfAbsent(v, k -> new ArrayList<>()).add(u);
+        }
+        int[] targets = new int[g.edges()];
+        int[] offsets = ParallelComponents.buildCsr(g.nodes, g.src, g.dst, g.edges(), targets);
+        ForkJoinPool pool = new ForkJoinPool();
+
+        return new Kernels.Components() {
+            public Object baseline() {
+                return Baseline.findComponents(adjacency);
+            }
+
+            public Object parallelUnionFind() {
+                return ParallelComponents.findComponents(offsets, targets, pool);
+            }
+
+            public void close() {
+                pool.shutdown();
+            }
+        };
+    }
+
+    @Override
+    public Kernels.Matching matching(SyntheticGraphs g) {
+        // Same shape BaselineGreedyAlgo.loadGraph builds
+        Map<Integer, Set<Integer>> adjacency = new HashMap<>();
+        for (int i = 0; i < g.edges(); i++) {
+            adjacency.computeIfAbsent(g.src[i], k -> new HashSet<>()).add(g.dst[i]);
+            adjacency.computeIfAbsent(g.dst[i], k -> new HashSet<>()).add(g.src[i]);
+        }
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < g.edges(); i++) lines.append(g.src[i]).append(',').append(g.dst[i]).append('\n');
+        byte[] edgeLines = lines.toString().getBytes(StandardCharsets.UTF_8);
+        ForkJoinPool pool = new ForkJoinPool();
+
+        return new Kernels.Matching() {
+            public Object baselineGreedy() {
+                return new BaselineGreedyAlgo(adjacency).findGreedyMaximalMatching();
+            }
+
+            public void sequentialMatching() throws IOException {
+                new SequentialMaximalMatching().findMatching(new ByteArrayInputStream(edgeLines), OutputStream.nullOutputStream());
+            }
+
+            public Object parallelMatching() {
+                return ParallelMaximalMatching.match(g.nodes, g.src, g.dst, g.edges(), pool, 42);
+            }
+
+            public void close() {
+                pool.shutdown();
+            }
+        };
+    }
+
+    @Override
+    public Kernels.Mst mst(SyntheticGraphs g, int[] weights) {
+        MSTMapReduce.EdgeList edges = new MSTMapReduce.EdgeList();
+        for (int i = 0; i < g.edges(); i++) edges.add(g.src[i], g.dst[i], weights[i]);
+
+        return new Kernels.Mst() {
+            public Object kruskal() {
+                return MSTMapReduce.kruskalMST(edges);
+            }
+
+            // The generated IDs are already dense, so no remapping is needed here
+            public int unionFind() {
+                MSTMapReduce.UnionFind uf = new MSTMapReduce.UnionFind(g.nodes);
+                int merged = 0;
+                for (int i = 0; i < edges.size; i++) {
+                    if (uf.union(edges.u[i], edges.v[i])) merged++;
+                }
+                return merged;
+            }
+        };
+    }
+}
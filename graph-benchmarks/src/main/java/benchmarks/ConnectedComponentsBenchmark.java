@@ -0,0 +1,39 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Baseline's DFS over a string adjacency map against ParallelComponents' union-find over a CSR graph
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ConnectedComponentsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Input extends GraphState {
+        Kernels.Components kernels;
+
+        @Setup
+        public void setup() {
+            kernels = Kernels.load().components(generate());
+        }
+
+        @TearDown
+        public void tearDown() {
+            kernels.close();
+        }
+    }
+
+    @Benchmark
+    public Object baseline(Input in) {
+        return in.kernels.baseline();
+    }
+
+    @Benchmark
+    public Object parallelUnionFind(Input in) {
+        return in.kernels.parallelUnionFind();
+    }
+}
@@ -0,0 +1,27 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+// Graph parameters shared by every benchmark; override them with -p kind=er -p nodes=1048576 etc.
+@State(Scope.Benchmark)
+public abstract class GraphState {
+
+    @Param({SyntheticGraphs.RMAT, SyntheticGraphs.ERDOS_RENYI})
+    public String kind;
+
+    @Param({"65536"})
+    public int nodes;
+
+    // Average edges per node
+    @Param({"8"})
+    public int edgeFactor;
+
+    @Param({"42"})
+    public long seed;
+
+    protected SyntheticGraphs generate() {
+        return SyntheticGraphs.generate(kind, nodes, edgeFactor, seed);
+    }
+}
@@ -0,0 +1,52 @@
+package benchmarks;
+
+// The repo's algorithms live in the default package, which benchmark code in a named package (as JMH
+// requires) cannot reference. GraphKernels, in the default package, implements this interface and
+// prepares each kernel's input in the shape its caller builds; the benchmarks only see these methods.
+public interface Kernels {
+
+    Components components(SyntheticGraphs graph);
+
+    Matching matching(SyntheticGraphs graph);
+
+    Mst mst(SyntheticGraphs graph, int[] weights);
+
+    interface Components {
+        // Baseline.findComponents over a string adjacency map
+        Object baseline();
+
+        // ParallelComponents.findComponents over a CSR graph
+        Object parallelUnionFind();
+
+        void close();
+    }
+
+    interface Matching {
+        // BaselineGreedyAlgo.findGreedyMaximalMatching
+        Object baselineGreedy();
+
+        // SequentialMaximalMatching.findMatching over "u,v" lines
+        void sequentialMatching() throws Exception;
+
+        // ParallelMaximalMatching.match over the edge arrays
+        Object parallelMatching();
+
+        void close();
+    }
+
+    interface Mst {
+        // MSTMapReduce.kruskalMST
+        Object kruskal();
+
+        // MSTMapReduce.UnionFind, unions in input order; returns how many merged
+        int unionFind();
+    }
+
+    static Kernels load() {
+        try {
+            return (Kernels) Class.forName("GraphKernels").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("GraphKernels is missing from the classpath", e);
+        }
+    }
+}
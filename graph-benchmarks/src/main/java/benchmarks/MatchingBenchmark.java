@@ -0,0 +1,46 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// The in-memory matching kernels: BaselineGreedyAlgo, SequentialMaximalMatching and ParallelMaximalMatching
+// (the driver's in-memory step)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MatchingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Input extends GraphState {
+        Kernels.Matching kernels;
+
+        @Setup
+        public void setup() {
+            SyntheticGraphs graph = generate();
+            kernels = Kernels.load().matching(graph);
+        }
+
+        @TearDown
+        public void tearDown() {
+            kernels.close();
+        }
+    }
+
+    @Benchmark
+    public Object baselineGreedy(Input in) {
+        return in.kernels.baselineGreedy();
+    }
+
+    @Benchmark
+    public void sequentialMatching(Input in) throws Exception {
+        in.kernels.sequentialMatching();
+    }
+
+    @Benchmark
+    public Object parallelMatching(Input in) {
+        return in.kernels.parallelMatching();
+    }
+}
@@ -0,0 +1,35 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// The local MST of MSTMapReduce's reducers: kruskalMST end to end, and its UnionFind on its own
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MstBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Input extends GraphState {
+        Kernels.Mst kernels;
+
+        @Setup
+        public void setup() {
+            SyntheticGraphs graph = generate();
+            kernels = Kernels.load().mst(graph, graph.weights(1 << 20, seed));
+        }
+    }
+
+    @Benchmark
+    public Object kruskal(Input in) {
+        return in.kernels.kruskal();
+    }
+
+    @Benchmark
+    public int unionFind(Input in) {
+        return in.kernels.unionFind();
+    }
+}
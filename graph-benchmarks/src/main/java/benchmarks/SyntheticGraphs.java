@@ -0,0 +1,91 @@
+package benchmarks;
+
+import java.util.SplittableRandom;
+
+// Seeded random graphs for the benchmarks, as parallel src/dst arrays over node IDs 0..n-1.
+// Self-loops are skipped; duplicate edges are kept, as they would be in a raw edge-list file.
+public class SyntheticGraphs {
+
+    public static final String ERDOS_RENYI = "er";
+    public static final String RMAT = "rmat";
+
+    // R-MAT quadrant probabilities (Chakrabarti et al., 2004); d = 1 - a - b - c
+    private static final double A = 0.57, B = 0.19, C = 0.19;
+
+    public final int nodes;
+    public final int[] src;
+    public final int[] dst;
+
+    private SyntheticGraphs(int nodes, int[] src, int[] dst) {
+        this.nodes = nodes;
+        this.src = src;
+        this.dst = dst;
+    }
+
+    public int edges() {
+        return src.length;
+    }
+
+    public static SyntheticGraphs generate(String kind, int nodes, int edgeFactor, long seed) {
+        switch (kind) {
+            case ERDOS_RENYI: return erdosRenyi(nodes, (long) nodes * edgeFactor, seed);
+            case RMAT: return rmat(nodes, (long) nodes * edgeFactor, seed);
+            default: throw new IllegalArgumentException("Unknown graph kind: " + kind + " (expected er or rmat)");
+        }
+    }
+
+    // G(n, m): m endpoints pairs drawn uniformly
+    public static SyntheticGraphs erdosRenyi(int nodes, long edges, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        int m = checkedEdges(edges);
+        int[] src = new int[m], dst = new int[m];
+        for (int i = 0; i < m; ) {
+            int u = rnd.nextInt(nodes), v = rnd.nextInt(nodes);
+            if (u == v) continue;
+            src[i] = u;
+            dst[i] = v;
+            i++;
+        }
+        return new SyntheticGraphs(nodes, src, dst);
+    }
+
+    // R-MAT over the next power of two at or above nodes; the skewed degrees resemble web and social graphs
+    public static SyntheticGraphs rmat(int nodes, long edges, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        int scale = 32 - Integer.numberOfLeadingZeros(Math.max(nodes, 2) - 1);
+        int m = checkedEdges(edges);
+        int[] src = new int[m], dst = new int[m];
+        for (int i = 0; i < m; ) {
+            int u = 0, v = 0;
+            for (int bit = scale - 1; bit >= 0; bit--) {
+                double p = rnd.nextDouble();
+                if (p >= A + B + C) {
+                    u |= 1 << bit;
+                    v |= 1 << bit;
+                } else if (p >= A + B) {
+                    u |= 1 << bit;
+                } else if (p >= A) {
+                    v |= 1 << bit;
+                }
+            }
+            if (u == v) continue;
+            src[i] = u;
+            dst[i] = v;
+            i++;
+        }
+        return new SyntheticGraphs(1 << scale, src, dst);
+    }
+
+    // One weight per edge, uniform in [1, maxWeight]
+    public int[] weights(int maxWeight, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        int[] weights = new int[src.length];
+        for (int i = 0; i < weights.length; i++) weights[i] = 1 + rnd.nextInt(maxWeight);
+        return weights;
+    }
+
+    private static int checkedEdges(long edges) {
+        if (edges > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Too many edges: " + edges);
+        return (int) edges;
+    }
+}
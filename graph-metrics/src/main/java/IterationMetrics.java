@@ -0,0 +1,142 @@
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.Counters;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.TaskCounter;
+import org.apache.hadoop.mapreduce.TaskReport;
+import org.apache.hadoop.mapreduce.TaskType;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-round metrics for the iterative drivers (HashToMinDriver, MaximalMatchingDriver, MSTMapReduce).
+ *
+ * Every Hadoop job or in-process step of a round is one row: wall time, the map and reduce phase
+ * times taken from the task reports, the record, spill, shuffle, GC and CPU counters, and a
+ * driver-specific "remaining" figure (clusters changed, edges left). The file is rewritten after
+ * every row, so a failed run still leaves the rounds it finished. It is CSV unless the name ends in
+ * .json.
+ *
+ * The job client does not expose when the shuffle of a reduce task ends, so shuffle cost shows up as
+ * shuffle bytes and spilled records, and its time is part of the reduce phase.
+ */
+public class IterationMetrics {
+    // Where to write the metrics; defaults to _metrics.csv under the driver's output directory
+    public static final String FILE = "graph.metrics.file";
+
+    private static final String[] COLUMNS = {
+            "round", "step", "wall_ms", "map_phase_ms", "reduce_phase_ms",
+            "map_input_records", "map_output_records", "map_output_bytes", "spilled_records",
+            "shuffle_bytes", "reduce_input_records", "reduce_output_records", "gc_ms", "cpu_ms", "remaining"
+    };
+    private static final TaskCounter[] COUNTERS = {
+            TaskCounter.MAP_INPUT_RECORDS, TaskCounter.MAP_OUTPUT_RECORDS, TaskCounter.MAP_OUTPUT_BYTES,
+            TaskCounter.SPILLED_RECORDS, TaskCounter.REDUCE_SHUFFLE_BYTES, TaskCounter.REDUCE_INPUT_RECORDS,
+            TaskCounter.REDUCE_OUTPUT_RECORDS, TaskCounter.GC_TIME_MILLIS, TaskCounter.CPU_MILLISECONDS
+    };
+
+    private final FileSystem fs;
+    private final Path file;
+    private final List<Object[]> rows = new ArrayList<>();
+
+    public IterationMetrics(Configuration conf, Path outputDir) throws IOException {
+        this.file = new Path(conf.get(FILE, new Path(outputDir, "_metrics.csv").toString()));
+        this.fs = file.getFileSystem(conf);
+    }
+
+    // Records a finished Hadoop job
+    public void recordJob(int round, Job job, long wallMillis, long remaining) throws IOException, InterruptedException {
+        Object[] row = new Object[COLUMNS.length];
+        row[0] = round;
+        row[1] = job.getJobName();
+        row[2] = wallMillis;
+
+        // Phases from the task reports; the local runner has none, so they stay -1 there
+        long start = job.getStartTime(), mapEnd = -1, reduceEnd = -1;
+        for (TaskReport report : job.getTaskReports(TaskType.MAP)) mapEnd = Math.max(mapEnd, report.getFinishTime());
+        for (TaskReport report : job.getTaskReports(TaskType.REDUCE)) reduceEnd = Math.max(reduceEnd, report.getFinishTime());
+        row[3] = mapEnd > 0 && start > 0 ? mapEnd - start : -1;
+        row[4] = reduceEnd > 0 && mapEnd > 0 ? reduceEnd - mapEnd : -1;
+
+        Counters counters = job.getCounters();
+        for (int i = 0; i < COUNTERS.length; i++) row[5 + i] = counters.findCounter(COUNTERS[i]).getValue();
+        row[COLUMNS.length - 1] = remaining;
+        add(row);
+    }
+
+    // Records a step that ran in the driver itself, such as a sequential pass
+    public void recordStep(int round, String step, long wallMillis, long remaining) throws IOException {
+        Object[] row = new Object[COLUMNS.length];
+        row[0] = round;
+        row[1] = step;
+        row[2] = wallMillis;
+        for (int i = 3; i < COLUMNS.length - 1; i++) row[i] = -1L;
+        row[COLUMNS.length - 1] = remaining;
+        add(row);
+    }
+
+    // Wall time of every recorded row of the given round
+    public long roundMillis(int round) {
+        long total = 0;
+        for (Object[] row : rows) {
+            if ((Integer) row[0] == round) total += (Long) row[2];
+        }
+        return total;
+    }
+
+    public long totalMillis() {
+        long total = 0;
+        for (Object[] row : rows) total += (Long) row[2];
+        return total;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    private void add(Object[] row) throws IOException {
+        rows.add(row);
+        boolean json = file.getName().endsWith(".json");
+        try (PrintWriter out = new PrintWriter(new OutputStreamWriter(fs.create(file, true), StandardCharsets.UTF_8))) {
+            if (json) writeJson(out);
+            else writeCsv(out);
+        }
+    }
+
+    private void writeCsv(PrintWriter out) {
+        out.println(String.join(",", COLUMNS));
+        for (Object[] row : rows) {
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) line.append(',');
+                line.append(row[i] instanceof String ? "\"" + ((String) row[i]).replace("\"", "\"\"") + "\"" : row[i]);
+            }
+            out.println(line);
+        }
+    }
+
+    private void writeJson(PrintWriter out) {
+        out.println("[");
+        for (int r = 0; r < rows.size(); r++) {
+            Object[] row = rows.get(r);
+            StringBuilder line = new StringBuilder("  {");
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) line.append(", ");
+                line.append('"').append(COLUMNS[i]).append("\": ");
+                if (row[i] instanceof String) {
+                    line.append('"').append(((String) row[i]).replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+                } else {
+                    line.append(row[i]);
+                }
+            }
+            out.println(line.append(r + 1 < rows.size() ? "}," : "}"));
+        }
+        out.println("]");
+    }
+}
@@ -0,0 +1,43 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Lock-free union-find over 0..n-1: CAS on a shared parent array, path halving in find,
+// and link-by-index (the larger root always hangs under the smaller one), so no ranks are needed
+// and concurrent unions can never form a cycle.
+public class ConcurrentUnionFind {
+    private final AtomicIntegerArray parent;
+
+    public ConcurrentUnionFind(int n) {
+        parent = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) parent.set(i, i);
+    }
+
+    public int find(int x) {
+        while (true) {
+            int p = parent.get(x);
+            if (p == x) return x;
+            int gp = parent.get(p);
+            if (p != gp) parent.compareAndSet(x, p, gp);
+            x = gp;
+        }
+    }
+
+    // Returns true if a and b were in different sets
+    public boolean union(int a, int b) {
+        while (true) {
+            a = find(a);
+            b = find(b);
+            if (a == b) return false;
+            if (a < b) {
+                int t = a;
+                a = b;
+                b = t;
+            }
+            // a is the larger root; if another thread re-parented it meanwhile, retry from the new roots
+            if (parent.compareAndSet(a, a, b)) return true;
+        }
+    }
+
+    public int size() {
+        return parent.length();
+    }
+}
@@ -0,0 +1,33 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+// Runs body(i) for every i in [0, n) on a fork-join pool, splitting the range in halves down to a grain size
+public class ParallelFor extends RecursiveAction {
+    private static final int MIN_GRAIN = 256;
+
+    private final int from, to, grain;
+    private final IntConsumer body;
+
+    private ParallelFor(int from, int to, int grain, IntConsumer body) {
+        this.from = from;
+        this.to = to;
+        this.grain = grain;
+        this.body = body;
+    }
+
+    public static void run(ForkJoinPool pool, int n, IntConsumer body) {
+        int grain = Math.max(MIN_GRAIN, n / (pool.getParallelism() * 8));
+        pool.invoke(new ParallelFor(0, n, grain, body));
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= grain) {
+            for (int i = from; i < to; i++) body.accept(i);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        invokeAll(new ParallelFor(from, mid, grain, body), new ParallelFor(mid, to, grain, body));
+    }
+}
@@ -3,6 +3,7 @@ import org.apache.hadoop.io.Writable;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -28,6 +29,35 @@ public class ClusterWritable implements Writable {
         cluster.addAll(other.getCluster());
     }
 
+    // Order-independent 64-bit digest of nodes ∪ {self}; equal clusters always give equal digests
+    public static long fingerprint(Collection<String> nodes, String self) {
+        long sum = 0;
+        int size = nodes.size();
+        for (String node : nodes) sum += mix(hash(node));
+        if (!nodes.contains(self)) {
+            sum += mix(hash(self));
+            size++;
+        }
+        return mix(sum + size);
+    }
+
+    // 64-bit FNV-1a over the UTF-16 chars, wider than String.hashCode to keep digests collision-free in practice
+    private static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // SplitMix64 finalizer
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
     @Override
     public String toString() {
         return String.join(",", cluster);
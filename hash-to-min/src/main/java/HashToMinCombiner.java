@@ -0,0 +1,26 @@
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Reducer;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+// Collapses every cluster sent to one node by a map task into a single union; previous-cluster records pass through
+public class HashToMinCombiner extends Reducer<Text, TaggedClusterWritable, Text, TaggedClusterWritable> {
+    private TaggedClusterWritable union = new TaggedClusterWritable();
+
+    public void reduce(Text key, Iterable<TaggedClusterWritable> values, Context context) throws IOException, InterruptedException {
+        Set<String> unionCluster = new HashSet<>();
+        for (TaggedClusterWritable cluster : values) {
+            if (cluster.getTag() == TaggedClusterWritable.PREVIOUS) {
+                context.write(key, cluster);
+            } else {
+                unionCluster.addAll(cluster.getCluster());
+            }
+        }
+        if (!unionCluster.isEmpty()) {
+            union.setCluster(unionCluster);
+            context.write(key, union);
+        }
+    }
+}
@@ -4,13 +4,28 @@ import org.apache.hadoop.mapreduce.Mapper;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 
-public class HashToMinMapper extends Mapper<LongWritable, Text, Text, ClusterWritable> {
+public class HashToMinMapper extends Mapper<LongWritable, Text, Text, TaggedClusterWritable> {
     private Text word = new Text();
-    private ClusterWritable clusterWritable = new ClusterWritable();
+    private TaggedClusterWritable clusterWritable = new TaggedClusterWritable();
+    private TaggedClusterWritable previous = new TaggedClusterWritable();
+
+    // Optional in-mapper aggregation: clusters per target node, flushed once more than maxBuffered IDs are held
+    private Map<String, Set<String>> buffer = new HashMap<>();
+    private long buffered;
+    private long maxBuffered;
+    private boolean greaterOnly;
+
+    @Override
+    protected void setup(Context context) {
+        maxBuffered = context.getConfiguration().getLong(SingleJobDriver.IN_MAPPER_BUFFER, 0);
+        greaterOnly = SingleJobDriver.Strategy.of(context.getConfiguration()) == SingleJobDriver.Strategy.HASH_GREATER_TO_MIN;
+    }
 
     public void map(LongWritable key, Text value, Context context) throws IOException, InterruptedException {
         String[] parts = value.toString().split("\t");
@@ -24,19 +39,63 @@ public class HashToMinMapper extends Mapper<LongWritable, Text, Text, ClusterWri
         // Find minimum ID in cluster
         String minNode = Collections.min(cluster);
 
+        // Tell the node's own reducer what its cluster looked like before this iteration
+        word.set(node);
+        previous.setPrevious(ClusterWritable.fingerprint(cluster, node), minNode, cluster.size());
+        context.write(word, previous);
+
+        // Hash-Greater-to-Min only forwards the part of the cluster at or above the node itself
+        if (greaterOnly) {
+            Set<String> greater = new HashSet<>();
+            for (String neighbor : cluster) {
+                if (neighbor.compareTo(node) >= 0) greater.add(neighbor);
+            }
+            cluster = greater;
+        }
+
         // Emit full cluster to reducer for minNode
-        word.set(minNode);
-        this.clusterWritable.setCluster(new HashSet<>(cluster));
-        context.write(word, this.clusterWritable);
+        emit(minNode, cluster, context);
 
         // Emit minNode to all others
-        ClusterWritable minOnly = new ClusterWritable();
-        minOnly.setCluster(Set.of(minNode));
+        Set<String> minOnly = Set.of(minNode);
         for (String neighbor : cluster) {
             if (!neighbor.equals(minNode)) {
-                word.set(neighbor);
-                context.write(word, minOnly);
+                emit(neighbor, minOnly, context);
             }
         }
     }
+
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+        flush(context);
+    }
+
+    private void emit(String target, Set<String> cluster, Context context) throws IOException, InterruptedException {
+        if (maxBuffered <= 0) {
+            word.set(target);
+            clusterWritable.setCluster(cluster);
+            context.write(word, clusterWritable);
+            return;
+        }
+        Set<String> pending = buffer.get(target);
+        if (pending == null) {
+            pending = new HashSet<>();
+            buffer.put(target, pending);
+            buffered++;
+        }
+        int before = pending.size();
+        pending.addAll(cluster);
+        buffered += pending.size() - before;
+        if (buffered > maxBuffered) flush(context);
+    }
+
+    private void flush(Context context) throws IOException, InterruptedException {
+        for (Map.Entry<String, Set<String>> entry : buffer.entrySet()) {
+            word.set(entry.getKey());
+            clusterWritable.setCluster(entry.getValue());
+            context.write(word, clusterWritable);
+        }
+        buffer.clear();
+        buffered = 0;
+    }
 }
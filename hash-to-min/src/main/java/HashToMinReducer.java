@@ -1,15 +1,51 @@
 import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Counter;
 import org.apache.hadoop.mapreduce.Reducer;
 
 
 import java.io.IOException;
 import java.util.*;
 
-public class HashToMinReducer extends Reducer<Text, ClusterWritable, Text, Text> {
-    public void reduce(Text key, Iterable<ClusterWritable> values, Context context) throws IOException, InterruptedException {
+public class HashToMinReducer extends Reducer<Text, TaggedClusterWritable, Text, Text> {
+    public static final String COUNTER_GROUP = "HashToMin";
+    public static final String CLUSTERS_CHANGED = "ClustersChanged";
+
+    private Counter clustersChanged;
+
+    @Override
+    protected void setup(Context context) {
+        clustersChanged = context.getCounter(COUNTER_GROUP, CLUSTERS_CHANGED);
+    }
+
+    public void reduce(Text key, Iterable<TaggedClusterWritable> values, Context context) throws IOException, InterruptedException {
         Set<String> unionCluster = new HashSet<>();
-        for (ClusterWritable cluster : values) {
-            unionCluster.addAll(cluster.getCluster());
+        boolean hadPrevious = false;
+        long previous = 0;
+        String previousMin = null;
+        int previousSize = 0;
+        for (TaggedClusterWritable cluster : values) {
+            if (cluster.getTag() == TaggedClusterWritable.PREVIOUS) {
+                hadPrevious = true;
+                previous = cluster.getFingerprint();
+                previousMin = cluster.getPreviousMin();
+                previousSize = cluster.getPreviousSize();
+            } else {
+                unionCluster.addAll(cluster.getCluster());
+            }
+        }
+
+        // A node that had no line of its own last iteration always counts as changed. A differing fingerprint
+        // settles it quickly; equal ones are checked against the exact min ID and size, so a hash collision
+        // alone can't end the job early.
+        String node = key.toString();
+        String min = node;
+        for (String id : unionCluster) {
+            if (id.compareTo(min) < 0) min = id;
+        }
+        int size = unionCluster.contains(node) ? unionCluster.size() : unionCluster.size() + 1;
+        if (!hadPrevious || previous != ClusterWritable.fingerprint(unionCluster, node)
+                || !min.equals(previousMin) || size != previousSize) {
+            clustersChanged.increment(1);
         }
 
         List<String> sorted = new ArrayList<>(unionCluster);
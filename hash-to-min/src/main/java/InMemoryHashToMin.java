@@ -0,0 +1,233 @@
+// InMemoryHashToMin.java
+import org.apache.hadoop.conf.Configured;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Runs the HashToMinMapper/HashToMinReducer iterations on one machine for graphs that fit in memory.
+// Clusters are sorted int[] over interned node IDs, and each phase of an iteration is a fork-join loop.
+// Takes the same arguments and -D options as HashToMinDriver and writes the converged clusters in the
+// same format to <outputBaseDir>/final, as HashToMinDriver does in primitive mode, without the job startup
+// and disk round trip of every intermediate iteration.
+public class InMemoryHashToMin extends Configured implements Tool {
+    private static final int MAX_ITERS = 20;
+    // Worker threads of the fork-join pool; defaults to one per core
+    public static final String THREADS = "hashtomin.threads";
+
+    private ForkJoinPool pool;
+    private boolean greaterOnly;
+
+    public static void main(String[] args) throws Exception {
+        int res = ToolRunner.run(new Configuration(), new InMemoryHashToMin(), args);
+        System.exit(res);
+    }
+
+    @Override
+    public int run(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("Usage: InMemoryHashToMin [-D" + SingleJobDriver.PRIMITIVE + "=true]"
+                    + " [-D" + SingleJobDriver.STRATEGY + "=hash-to-min|hash-greater-to-min]"
+                    + " [-D" + THREADS + "=<n>] [-D" + IterationMetrics.FILE + "=<metrics.csv|metrics.json>]"
+                    + " <inputDir> <outputBaseDir>");
+            return -1;
+        }
+
+        Configuration conf = getConf();
+        conf.set("fs.file.impl", "org.apache.hadoop.fs.LocalFileSystem");
+        SingleJobDriver.Strategy strategy = SingleJobDriver.Strategy.of(conf);
+        if (strategy == SingleJobDriver.Strategy.ALTERNATING) {
+            System.err.println("The alternating strategy is only available through HashToMinDriver.");
+            return -1;
+        }
+        greaterOnly = strategy == SingleJobDriver.Strategy.HASH_GREATER_TO_MIN;
+        FileSystem fs = FileSystem.get(conf);
+        Path finalOut = new Path(args[1] + "/final");
+        if (fs.exists(finalOut)) {
+            System.err.println("Output directory " + finalOut + " already exists.");
+            return 1;
+        }
+        pool = new ForkJoinPool(conf.getInt(THREADS, Runtime.getRuntime().availableProcessors()));
+
+        try {
+            IterationMetrics metrics = new IterationMetrics(conf, new Path(args[1]));
+            NodeDictionary dict = new NodeDictionary();
+            int[][] clusters = load(fs, new Path(args[0]), dict, conf.getBoolean(SingleJobDriver.PRIMITIVE, false));
+
+            int iter = 0;
+            while (true) {
+                long start = System.currentTimeMillis();
+                LongAdder changed = new LongAdder();
+                clusters = iterate(clusters, changed);
+                metrics.recordStep(iter, "in-memory-hash-to-min-" + iter, System.currentTimeMillis() - start, changed.sum());
+                if (changed.sum() == 0 || iter == MAX_ITERS - 1) break;
+                iter++;
+            }
+
+            write(fs, finalOut, clusters, dict);
+            double avgTime = metrics.totalMillis() / 1000.0 / (iter + 1);
+            System.out.println("Converged in " + iter + " iteration(s).");
+            System.out.printf("Average time per iteration: %.2f seconds%n", avgTime);
+            System.out.println("Per-iteration metrics written to " + metrics.getFile());
+            return 0;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // One map, shuffle and reduce pass; returns the new clusters and counts the nodes whose cluster changed
+    private int[][] iterate(int[][] clusters, LongAdder changed) {
+        int n = clusters.length;
+        int[][] outgoing = new int[n][];
+        int[] minOf = new int[n];
+        AtomicIntegerArray counts = new AtomicIntegerArray(n);
+
+        // 1) map: same emissions as HashToMinMapper, counted per target node
+        ParallelFor.run(pool, n, v -> {
+            if (clusters[v] == null) return;
+            int[] cluster = withNode(clusters[v], v);
+            int min = cluster[0];
+            if (greaterOnly) cluster = Arrays.copyOfRange(cluster, Arrays.binarySearch(cluster, v), cluster.length);
+            outgoing[v] = cluster;
+            minOf[v] = min;
+            counts.addAndGet(min, cluster.length);
+            for (int u : cluster) {
+                if (u != min) counts.incrementAndGet(u);
+            }
+        });
+
+        // 2) shuffle: lay out the messages for each target node contiguously
+        int[] offsets = new int[n + 1];
+        long total = 0;
+        for (int w = 0; w < n; w++) {
+            total += counts.get(w);
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Too many messages in one iteration for the in-memory engine; use HashToMinDriver.");
+            }
+            offsets[w + 1] = (int) total;
+        }
+        int[] messages = new int[offsets[n]];
+        AtomicIntegerArray cursor = new AtomicIntegerArray(Arrays.copyOf(offsets, n));
+        ParallelFor.run(pool, n, v -> {
+            int[] cluster = outgoing[v];
+            if (cluster == null) return;
+            int min = minOf[v];
+            System.arraycopy(cluster, 0, messages, cursor.getAndAdd(min, cluster.length), cluster.length);
+            for (int u : cluster) {
+                if (u != min) messages[cursor.getAndIncrement(u)] = min;
+            }
+        });
+
+        // 3) reduce: union per node, as HashToMinReducer does
+        int[][] next = new int[n][];
+        ParallelFor.run(pool, n, w -> {
+            int from = offsets[w], to = offsets[w + 1];
+            if (from == to) return;
+            int[] union = Arrays.copyOfRange(messages, from, to);
+            Arrays.sort(union);
+            int size = 1;
+            for (int i = 1; i < union.length; i++) {
+                if (union[i] != union[size - 1]) union[size++] = union[i];
+            }
+            next[w] = size == union.length ? union : Arrays.copyOf(union, size);
+            if (clusters[w] == null || !sameCluster(clusters[w], next[w], w)) changed.increment();
+        });
+        return next;
+    }
+
+    // cluster ∪ {node}, as the mapper sees it
+    private static int[] withNode(int[] cluster, int node) {
+        int pos = Arrays.binarySearch(cluster, node);
+        if (pos >= 0) return cluster;
+        pos = -pos - 1;
+        int[] with = new int[cluster.length + 1];
+        System.arraycopy(cluster, 0, with, 0, pos);
+        with[pos] = node;
+        System.arraycopy(cluster, pos, with, pos + 1, cluster.length - pos);
+        return with;
+    }
+
+    // Whether a ∪ {node} equals b ∪ {node}, for sorted duplicate-free a and b
+    private static boolean sameCluster(int[] a, int[] b, int node) {
+        int i = 0, j = 0;
+        while (true) {
+            if (i < a.length && a[i] == node) i++;
+            if (j < b.length && b[j] == node) j++;
+            if (i == a.length || j == b.length) return i == a.length && j == b.length;
+            if (a[i++] != b[j++]) return false;
+        }
+    }
+
+    // Reads "node<TAB>id,id,..." lines into clusters indexed by node, numbered in node ID order
+    private static int[][] load(FileSystem fs, Path input, NodeDictionary dict, boolean numeric) throws IOException {
+        List<int[]> lines = new ArrayList<>();
+        for (FileStatus file : listInputFiles(fs, input)) {
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(fs.open(file.getPath()), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = br.readLine()) != null) {
+                    if (line.isEmpty()) continue;
+                    String[] parts = line.split("\t");
+                    String[] neighbors = parts.length > 1 ? parts[1].split(",") : new String[0];
+                    int[] cluster = new int[neighbors.length + 1];
+                    int size = 0;
+                    cluster[size++] = dict.intern(parts[0]);
+                    for (String neighbor : neighbors) {
+                        if (!neighbor.isEmpty()) cluster[size++] = dict.intern(neighbor);
+                    }
+                    lines.add(size == cluster.length ? cluster : Arrays.copyOf(cluster, size));
+                }
+            }
+        }
+
+        int[] remap = dict.sort(NodeDictionary.order(numeric));
+        int[][] clusters = new int[dict.size()][];
+        for (int[] line : lines) {
+            int node = remap[line[0]];
+            int[] prev = clusters[node] == null ? new int[0] : clusters[node];
+            int[] merged = Arrays.copyOf(prev, prev.length + line.length);
+            for (int i = 0; i < line.length; i++) merged[prev.length + i] = remap[line[i]];
+            Arrays.sort(merged);
+            int size = 1;
+            for (int i = 1; i < merged.length; i++) {
+                if (merged[i] != merged[size - 1]) merged[size++] = merged[i];
+            }
+            clusters[node] = Arrays.copyOf(merged, size);
+        }
+        return clusters;
+    }
+
+    static FileStatus[] listInputFiles(FileSystem fs, Path input) throws IOException {
+        if (!fs.getFileStatus(input).isDirectory()) return new FileStatus[]{fs.getFileStatus(input)};
+        return fs.listStatus(input, path -> !path.getName().startsWith("_") && !path.getName().startsWith("."));
+    }
+
+    private static void write(FileSystem fs, Path dir, int[][] clusters, NodeDictionary dict) throws IOException {
+        try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(fs.create(new Path(dir, "part-r-00000")), StandardCharsets.UTF_8))) {
+            for (int w = 0; w < clusters.length; w++) {
+                if (clusters[w] == null) continue;
+                out.write(dict.name(w));
+                out.write('\t');
+                for (int i = 0; i < clusters[w].length; i++) {
+                    if (i > 0) out.write(',');
+                    out.write(dict.name(clusters[w][i]));
+                }
+                out.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,308 @@
+// IncrementalComponents.java
+import org.apache.hadoop.conf.Configured;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.util.Tool;
+import org.apache.hadoop.util.ToolRunner;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Folds a batch of new edges into an existing component labeling instead of rerunning HashToMinDriver.
+//
+// Writes <outputDir>/labels/part-r-00000, the new labeling as one "node<TAB>label" line per node sorted by node
+// (the node<TAB>cluster format OutputParser and the other tools read), with labels/_index, every INDEX_STRIDE-th
+// node and its byte offset, and <outputDir>/merged/part-r-00000, one "oldLabel<TAB>newLabel" line per component
+// that the new edges merged away.
+//
+// The previous labeling is the labels/ of an earlier run, or any "node<TAB>id,id,..." output whose lines each lie
+// inside one component and contain its smallest ID (a converged HashToMinDriver/InMemoryHashToMin iteration or
+// OutputParser's output), which a sort job first brings into the labels/ form. The labels of the nodes touched by
+// the new edges are looked up through the index, so memory and lookups grow with the delta; the new labeling is
+// written in one streaming merge of the old one with the new nodes, and the old edges are never read again.
+public class IncrementalComponents extends Configured implements Tool {
+    // Lines between two entries of labels/_index
+    static final int INDEX_STRIDE = 1024;
+    static final String INDEX = "_index";
+
+    public static void main(String[] args) throws Exception {
+        int res = ToolRunner.run(new Configuration(), new IncrementalComponents(), args);
+        System.exit(res);
+    }
+
+    @Override
+    public int run(String[] args) throws Exception {
+        if (args.length != 3) {
+            System.err.println("Usage: IncrementalComponents [-D" + SingleJobDriver.PRIMITIVE + "=true]"
+                    + " <previousLabelsDir> <newEdgesDir> <outputDir>");
+            return -1;
+        }
+
+        Configuration conf = getConf();
+        conf.set("fs.file.impl", "org.apache.hadoop.fs.LocalFileSystem");
+        FileSystem fs = FileSystem.get(conf);
+        Comparator<String> order = NodeDictionary.order(conf.getBoolean(SingleJobDriver.PRIMITIVE, false));
+        Path output = new Path(args[2]);
+        if (fs.exists(output)) {
+            System.err.println("Output directory " + output + " already exists.");
+            return 1;
+        }
+
+        // 0) The previous labeling as one node-sorted "node<TAB>label" file: an earlier run's labels/, or a sorted
+        // copy of any other labeling
+        Path previous = new Path(args[0]);
+        if (!fs.exists(new Path(previous, INDEX)) && fs.exists(new Path(previous, "labels/" + INDEX))) {
+            previous = new Path(previous, "labels");
+        }
+        boolean indexed = fs.exists(new Path(previous, INDEX));
+        if (!indexed) {
+            Path sorted = new Path(output, "_sorted");
+            Job job = sortJob(conf, previous, sorted);
+            if (!job.waitForCompletion(true)) {
+                System.err.println("Sorting the labeling " + previous + " failed.");
+                return 1;
+            }
+            previous = sorted;
+        }
+        Path previousFile = new Path(previous, "part-r-00000");
+
+        // 1) Read the new edges and remember which nodes they touch
+        List<String[]> edges = new ArrayList<>();
+        TreeMap<String, String> labelOf = new TreeMap<>();
+        for (FileStatus file : InMemoryHashToMin.listInputFiles(fs, new Path(args[1]))) {
+            try (BufferedReader br = open(fs, file.getPath())) {
+                String line;
+                while ((line = br.readLine()) != null) {
+                    String[] ids = ids(line);
+                    if (ids == null) continue;
+                    for (int i = 1; i < ids.length; i++) edges.add(new String[]{ids[0], ids[i]});
+                    for (String id : ids) labelOf.put(id, null);
+                }
+            }
+        }
+
+        // 2) Look up the old labels of the touched nodes, through the index when there is one; nodes not seen
+        // before start out alone
+        if (indexed) lookUp(fs, previousFile, readIndex(fs, new Path(previous, INDEX)), labelOf);
+        else scan(fs, previousFile, labelOf);
+        TreeSet<String> newNodes = new TreeSet<>();
+        for (Map.Entry<String, String> entry : labelOf.entrySet()) {
+            if (entry.getValue() == null) {
+                entry.setValue(entry.getKey());
+                newNodes.add(entry.getKey());
+            }
+        }
+
+        // 3) Union the labels joined by the new edges
+        StringUnionFind uf = new StringUnionFind(order);
+        for (String[] edge : edges) uf.union(labelOf.get(edge[0]), labelOf.get(edge[1]));
+        Map<String, String> merged = new TreeMap<>(order);
+        for (String label : new ArrayList<>(uf.nodes())) {
+            String root = uf.find(label);
+            if (!root.equals(label) && !newNodes.contains(label)) merged.put(label, root);
+        }
+
+        // 4) Merge the old labeling, relabeled, with the new nodes into the new labeling and its index
+        long lines = 0;
+        List<String> index = new ArrayList<>();
+        Iterator<String> added = newNodes.iterator();
+        String nextNew = added.hasNext() ? added.next() : null;
+        try (BufferedReader br = open(fs, previousFile);
+             BufferedWriter out = create(fs, new Path(output, "labels/part-r-00000"))) {
+            long offset = 0;
+            String line = br.readLine();
+            while (line != null || nextNew != null) {
+                String node, label;
+                int tab = line == null ? -1 : line.indexOf('\t');
+                if (line != null && (nextNew == null || line.substring(0, tab).compareTo(nextNew) < 0)) {
+                    node = line.substring(0, tab);
+                    label = line.substring(tab + 1);
+                    label = merged.getOrDefault(label, label);
+                    line = br.readLine();
+                } else {
+                    node = nextNew;
+                    label = uf.find(node);
+                    nextNew = added.hasNext() ? added.next() : null;
+                }
+                if (lines++ % INDEX_STRIDE == 0) index.add(node + "\t" + offset);
+                String record = node + "\t" + label + "\n";
+                out.write(record);
+                offset += record.getBytes(StandardCharsets.UTF_8).length;
+            }
+        }
+        try (BufferedWriter out = create(fs, new Path(output, "labels/" + INDEX))) {
+            for (String entry : index) {
+                out.write(entry);
+                out.write('\n');
+            }
+        }
+
+        try (BufferedWriter out = create(fs, new Path(output, "merged/part-r-00000"))) {
+            for (Map.Entry<String, String> entry : merged.entrySet()) {
+                out.write(entry.getKey() + "\t" + entry.getValue());
+                out.newLine();
+            }
+        }
+        fs.delete(new Path(output, "_sorted"), true);
+
+        System.out.printf("Applied %,d new edges: %,d new nodes, %,d components merged, %,d nodes labeled.%n",
+                edges.size(), newNodes.size(), merged.size(), lines);
+        return 0;
+    }
+
+    // Sets the labels of the nodes in labelOf that the sorted labeling file has; the index gives the offset of
+    // the block each node is in, so only those blocks are read
+    private static void lookUp(FileSystem fs, Path file, TreeMap<String, Long> index, TreeMap<String, String> labelOf) throws IOException {
+        try (FSDataInputStream in = fs.open(file)) {
+            Long block = null;
+            BufferedReader br = null;
+            String line = null;
+            for (Map.Entry<String, String> entry : labelOf.entrySet()) {
+                String node = entry.getKey();
+                Map.Entry<String, Long> start = index.floorEntry(node);
+                if (start == null) continue;
+                // Nodes are visited in file order, so a later node in the same block continues the scan
+                if (!start.getValue().equals(block)) {
+                    block = start.getValue();
+                    in.seek(block);
+                    br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                    line = br.readLine();
+                }
+                while (line != null && line.substring(0, line.indexOf('\t')).compareTo(node) < 0) line = br.readLine();
+                if (line != null && line.substring(0, line.indexOf('\t')).equals(node)) {
+                    entry.setValue(line.substring(line.indexOf('\t') + 1));
+                }
+            }
+        }
+    }
+
+    // lookUp without an index: one pass over the sorted labeling
+    private static void scan(FileSystem fs, Path file, TreeMap<String, String> labelOf) throws IOException {
+        try (BufferedReader br = open(fs, file)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                String node = line.substring(0, tab);
+                if (labelOf.containsKey(node)) labelOf.put(node, line.substring(tab + 1));
+            }
+        }
+    }
+
+    private static TreeMap<String, Long> readIndex(FileSystem fs, Path file) throws IOException {
+        TreeMap<String, Long> index = new TreeMap<>();
+        try (BufferedReader br = open(fs, file)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                index.put(line.substring(0, tab), Long.parseLong(line.substring(tab + 1)));
+            }
+        }
+        return index;
+    }
+
+    // One reducer, so the "node<TAB>label" lines come out in a single file sorted by node
+    private static Job sortJob(Configuration conf, Path input, Path output) throws IOException {
+        Job job = Job.getInstance(conf, "Incremental Components - Sort Labeling");
+        job.setJarByClass(IncrementalComponents.class);
+        job.setMapperClass(LabelMapper.class);
+        job.setReducerClass(LabelReducer.class);
+        job.setNumReduceTasks(1);
+        job.setOutputKeyClass(Text.class);
+        job.setOutputValueClass(Text.class);
+        for (FileStatus file : InMemoryHashToMin.listInputFiles(FileSystem.get(conf), input)) {
+            FileInputFormat.addInputPath(job, file.getPath());
+        }
+        FileOutputFormat.setOutputPath(job, output);
+        return job;
+    }
+
+    // Every ID on a line with the line's smallest ID
+    public static class LabelMapper extends Mapper<LongWritable, Text, Text, Text> {
+        private Comparator<String> order;
+        private final Text node = new Text();
+        private final Text label = new Text();
+
+        @Override
+        protected void setup(Context context) {
+            order = NodeDictionary.order(context.getConfiguration().getBoolean(SingleJobDriver.PRIMITIVE, false));
+        }
+
+        @Override
+        protected void map(LongWritable key, Text value, Context context) throws IOException, InterruptedException {
+            String[] ids = ids(value.toString());
+            if (ids == null) return;
+            label.set(min(ids, order));
+            for (String id : ids) {
+                node.set(id);
+                context.write(node, label);
+            }
+        }
+    }
+
+    public static class LabelReducer extends Reducer<Text, Text, Text, Text> {
+        private Comparator<String> order;
+        private final Text label = new Text();
+
+        @Override
+        protected void setup(Context context) {
+            order = NodeDictionary.order(context.getConfiguration().getBoolean(SingleJobDriver.PRIMITIVE, false));
+        }
+
+        @Override
+        protected void reduce(Text node, Iterable<Text> labels, Context context) throws IOException, InterruptedException {
+            String min = null;
+            for (Text l : labels) {
+                String s = l.toString();
+                if (min == null || order.compare(s, min) < 0) min = s;
+            }
+            label.set(min);
+            context.write(node, label);
+        }
+    }
+
+    // {key} ∪ values of a "node<TAB>id,id,..." line, or null for a blank line
+    private static String[] ids(String line) {
+        line = line.trim();
+        if (line.isEmpty()) return null;
+        String[] parts = line.split("\t", 2);
+        String[] vals = parts.length > 1 && !parts[1].isEmpty() ? parts[1].split(",") : new String[0];
+        String[] ids = new String[vals.length + 1];
+        ids[0] = parts[0];
+        int n = 1;
+        for (String v : vals) {
+            if (!v.isEmpty() && !v.equals(parts[0])) ids[n++] = v;
+        }
+        return n == ids.length ? ids : Arrays.copyOf(ids, n);
+    }
+
+    private static String min(String[] ids, Comparator<String> order) {
+        String min = ids[0];
+        for (String id : ids) {
+            if (order.compare(id, min) < 0) min = id;
+        }
+        return min;
+    }
+
+    private static BufferedReader open(FileSystem fs, Path path) throws IOException {
+        return new BufferedReader(new InputStreamReader(fs.open(path), StandardCharsets.UTF_8));
+    }
+
+    private static BufferedWriter create(FileSystem fs, Path path) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(fs.create(path), StandardCharsets.UTF_8));
+    }
+}
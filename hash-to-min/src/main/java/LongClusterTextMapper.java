@@ -0,0 +1,15 @@
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Mapper;
+
+import java.io.IOException;
+
+// Map-only export of a primitive-mode iteration back to the "node<TAB>id,id,..." text format
+public class LongClusterTextMapper extends Mapper<LongWritable, LongClusterWritable, LongWritable, Text> {
+    private Text line = new Text();
+
+    public void map(LongWritable key, LongClusterWritable value, Context context) throws IOException, InterruptedException {
+        line.set(value.toString());
+        context.write(key, line);
+    }
+}
@@ -0,0 +1,116 @@
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+// Primitive counterpart of TaggedClusterWritable: a cluster of numeric node IDs kept as a sorted long[]
+// and written as a varint count followed by varint deltas, or the fingerprint, min ID and size of a node's
+// previous cluster.
+public class LongClusterWritable implements Writable {
+    private static final long[] EMPTY = new long[0];
+
+    private byte tag = TaggedClusterWritable.CLUSTER;
+    private long fingerprint;
+    private long previousMin;
+    private int previousSize;
+    private long[] ids = EMPTY;
+    private int size;
+
+    public void write(DataOutput out) throws IOException {
+        out.writeByte(tag);
+        if (tag == TaggedClusterWritable.PREVIOUS) {
+            out.writeLong(fingerprint);
+            WritableUtils.writeVLong(out, previousMin);
+            WritableUtils.writeVInt(out, previousSize);
+            return;
+        }
+        WritableUtils.writeVInt(out, size);
+        long last = 0;
+        for (int i = 0; i < size; i++) {
+            WritableUtils.writeVLong(out, ids[i] - last);
+            last = ids[i];
+        }
+    }
+
+    public void readFields(DataInput in) throws IOException {
+        tag = in.readByte();
+        if (tag == TaggedClusterWritable.PREVIOUS) {
+            fingerprint = in.readLong();
+            previousMin = WritableUtils.readVLong(in);
+            previousSize = WritableUtils.readVInt(in);
+            size = 0;
+            return;
+        }
+        size = WritableUtils.readVInt(in);
+        if (ids.length < size) ids = new long[size];
+        long last = 0;
+        for (int i = 0; i < size; i++) {
+            last += WritableUtils.readVLong(in);
+            ids[i] = last;
+        }
+    }
+
+    public byte getTag() { return tag; }
+
+    public long getFingerprint() { return fingerprint; }
+
+    public long getPreviousMin() { return previousMin; }
+
+    public int getPreviousSize() { return previousSize; }
+
+    // Backing array; only the first getSize() entries are valid, in ascending order
+    public long[] getIds() { return ids; }
+
+    public int getSize() { return size; }
+
+    // Takes ownership of ids, which must be sorted and duplicate-free in [0, size)
+    public void set(long[] ids, int size) {
+        this.tag = TaggedClusterWritable.CLUSTER;
+        this.ids = ids;
+        this.size = size;
+    }
+
+    // Same contract as TaggedClusterWritable.setPrevious
+    public void setPrevious(long fingerprint, long min, int size) {
+        this.tag = TaggedClusterWritable.PREVIOUS;
+        this.fingerprint = fingerprint;
+        this.previousMin = min;
+        this.previousSize = size;
+        this.size = 0;
+    }
+
+    // Same contract as ClusterWritable.fingerprint, over ids[0, size) ∪ {self}
+    public static long fingerprint(long[] ids, int size, long self) {
+        long sum = 0;
+        for (int i = 0; i < size; i++) sum += ClusterWritable.mix(ids[i]);
+        if (Arrays.binarySearch(ids, 0, size, self) < 0) {
+            sum += ClusterWritable.mix(self);
+            size++;
+        }
+        return ClusterWritable.mix(sum + size);
+    }
+
+    // Sorts ids[0, size) and drops duplicates in place, returning the new size
+    public static int sortUnique(long[] ids, int size) {
+        if (size == 0) return 0;
+        Arrays.sort(ids, 0, size);
+        int n = 1;
+        for (int i = 1; i < size; i++) {
+            if (ids[i] != ids[n - 1]) ids[n++] = ids[i];
+        }
+        return n;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(ids[i]);
+        }
+        return sb.toString();
+    }
+}
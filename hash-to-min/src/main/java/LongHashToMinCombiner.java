@@ -0,0 +1,32 @@
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapreduce.Reducer;
+
+import java.io.IOException;
+
+// Primitive-mode HashToMinCombiner
+public class LongHashToMinCombiner extends Reducer<LongWritable, LongClusterWritable, LongWritable, LongClusterWritable> {
+    private LongClusterWritable out = new LongClusterWritable();
+    private long[] union = new long[16];
+
+    public void reduce(LongWritable key, Iterable<LongClusterWritable> values, Context context) throws IOException, InterruptedException {
+        int size = 0;
+        for (LongClusterWritable cluster : values) {
+            if (cluster.getTag() == TaggedClusterWritable.PREVIOUS) {
+                context.write(key, cluster);
+                continue;
+            }
+            int n = cluster.getSize();
+            if (union.length < size + n) {
+                long[] grown = new long[Math.max(size + n, union.length * 2)];
+                System.arraycopy(union, 0, grown, 0, size);
+                union = grown;
+            }
+            System.arraycopy(cluster.getIds(), 0, union, size, n);
+            size += n;
+        }
+        if (size > 0) {
+            out.set(union, LongClusterWritable.sortUnique(union, size));
+            context.write(key, out);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.Mapper;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Primitive-mode HashToMinMapper. The first iteration reads the text adjacency list, later ones read
+// the (node, cluster) SequenceFile written by LongHashToMinReducer.
+public class LongHashToMinMapper extends Mapper<LongWritable, Writable, LongWritable, LongClusterWritable> {
+    private LongWritable word = new LongWritable();
+    private LongClusterWritable clusterWritable = new LongClusterWritable();
+    private LongClusterWritable previous = new LongClusterWritable();
+    private long[] minBuffer = new long[1];
+    private long[] cluster = new long[16];
+
+    // Optional in-mapper aggregation, same contract as in HashToMinMapper
+    private Map<Long, Pending> buffer = new HashMap<>();
+    private long buffered;
+    private long maxBuffered;
+    private boolean greaterOnly;
+
+    @Override
+    protected void setup(Context context) {
+        maxBuffered = context.getConfiguration().getLong(SingleJobDriver.IN_MAPPER_BUFFER, 0);
+        greaterOnly = SingleJobDriver.Strategy.of(context.getConfiguration()) == SingleJobDriver.Strategy.HASH_GREATER_TO_MIN;
+    }
+
+    public void map(LongWritable key, Writable value, Context context) throws IOException, InterruptedException {
+        long node;
+        int size;
+        if (value instanceof Text) {
+            String[] parts = value.toString().split("\t");
+            String[] neighbors = parts.length > 1 ? parts[1].split(",") : new String[0];
+            ensureCapacity(neighbors.length + 1);
+            node = parseId(parts[0]);
+            cluster[0] = node;
+            size = 1;
+            for (String neighbor : neighbors) {
+                if (!neighbor.isEmpty()) cluster[size++] = parseId(neighbor);
+            }
+            size = LongClusterWritable.sortUnique(cluster, size);
+        } else {
+            LongClusterWritable in = (LongClusterWritable) value;
+            node = key.get();
+            size = in.getSize();
+            ensureCapacity(size + 1);
+            System.arraycopy(in.getIds(), 0, cluster, 0, size);
+            int pos = Arrays.binarySearch(cluster, 0, size, node);
+            if (pos < 0) {
+                pos = -pos - 1;
+                System.arraycopy(cluster, pos, cluster, pos + 1, size - pos);
+                cluster[pos] = node;
+                size++;
+            }
+        }
+
+        // The cluster is sorted, so its minimum is the first entry
+        long minNode = cluster[0];
+
+        // Tell the node's own reducer what its cluster looked like before this iteration
+        word.set(node);
+        previous.setPrevious(LongClusterWritable.fingerprint(cluster, size, node), minNode, size);
+        context.write(word, previous);
+
+        // Hash-Greater-to-Min only forwards the part of the cluster at or above the node itself
+        if (greaterOnly) {
+            int from = Arrays.binarySearch(cluster, 0, size, node);
+            System.arraycopy(cluster, from, cluster, 0, size - from);
+            size -= from;
+        }
+
+        // Emit full cluster to reducer for minNode
+        emit(minNode, cluster, size, context);
+
+        // Emit minNode to all others
+        minBuffer[0] = minNode;
+        for (int i = 0; i < size; i++) {
+            if (cluster[i] != minNode) emit(cluster[i], minBuffer, 1, context);
+        }
+    }
+
+    @Override
+    protected void cleanup(Context context) throws IOException, InterruptedException {
+        flush(context);
+    }
+
+    private void emit(long target, long[] ids, int size, Context context) throws IOException, InterruptedException {
+        if (maxBuffered <= 0) {
+            word.set(target);
+            clusterWritable.set(ids, size);
+            context.write(word, clusterWritable);
+            return;
+        }
+        Pending pending = buffer.get(target);
+        if (pending == null) {
+            pending = new Pending();
+            buffer.put(target, pending);
+            buffered++;
+        }
+        buffered += pending.add(ids, size);
+        if (buffered > maxBuffered) flush(context);
+    }
+
+    private void flush(Context context) throws IOException, InterruptedException {
+        for (Map.Entry<Long, Pending> entry : buffer.entrySet()) {
+            Pending pending = entry.getValue();
+            word.set(entry.getKey());
+            clusterWritable.set(pending.ids, LongClusterWritable.sortUnique(pending.ids, pending.size));
+            context.write(word, clusterWritable);
+        }
+        buffer.clear();
+        buffered = 0;
+    }
+
+    private void ensureCapacity(int n) {
+        if (cluster.length < n) cluster = new long[Math.max(n, cluster.length * 2)];
+    }
+
+    private static long parseId(String id) throws IOException {
+        try {
+            return Long.parseLong(id.trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Primitive mode needs numeric node IDs, got: " + id);
+        }
+    }
+
+    // IDs headed for one node; duplicates are squeezed out before the array grows
+    private static final class Pending {
+        long[] ids = new long[4];
+        int size;
+
+        // Returns how many IDs the buffer grew by
+        int add(long[] more, int n) {
+            int before = size;
+            if (size + n > ids.length) {
+                size = LongClusterWritable.sortUnique(ids, size);
+                if (size + n > ids.length) ids = Arrays.copyOf(ids, Math.max(size + n, ids.length * 2));
+            }
+            System.arraycopy(more, 0, ids, size, n);
+            size += n;
+            return size - before;
+        }
+    }
+}
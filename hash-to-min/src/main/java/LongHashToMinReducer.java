@@ -0,0 +1,55 @@
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.Reducer;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// Primitive-mode HashToMinReducer: unions the sorted ID arrays for a node and counts changed clusters
+public class LongHashToMinReducer extends Reducer<LongWritable, LongClusterWritable, LongWritable, LongClusterWritable> {
+    private Counter clustersChanged;
+    private LongClusterWritable out = new LongClusterWritable();
+    private long[] union = new long[16];
+
+    @Override
+    protected void setup(Context context) {
+        clustersChanged = context.getCounter(HashToMinReducer.COUNTER_GROUP, HashToMinReducer.CLUSTERS_CHANGED);
+    }
+
+    public void reduce(LongWritable key, Iterable<LongClusterWritable> values, Context context) throws IOException, InterruptedException {
+        int size = 0;
+        boolean hadPrevious = false;
+        long previous = 0, previousMin = 0;
+        int previousSize = 0;
+        for (LongClusterWritable cluster : values) {
+            if (cluster.getTag() == TaggedClusterWritable.PREVIOUS) {
+                hadPrevious = true;
+                previous = cluster.getFingerprint();
+                previousMin = cluster.getPreviousMin();
+                previousSize = cluster.getPreviousSize();
+                continue;
+            }
+            int n = cluster.getSize();
+            if (union.length < size + n) {
+                long[] grown = new long[Math.max(size + n, union.length * 2)];
+                System.arraycopy(union, 0, grown, 0, size);
+                union = grown;
+            }
+            System.arraycopy(cluster.getIds(), 0, union, size, n);
+            size += n;
+        }
+        size = LongClusterWritable.sortUnique(union, size);
+
+        // Same test as HashToMinReducer: the fingerprint first, then the exact min ID and size of union ∪ {node}
+        long node = key.get();
+        long min = size > 0 ? Math.min(union[0], node) : node;
+        int withNode = Arrays.binarySearch(union, 0, size, node) < 0 ? size + 1 : size;
+        if (!hadPrevious || previous != LongClusterWritable.fingerprint(union, size, node)
+                || min != previousMin || withNode != previousSize) {
+            clustersChanged.increment(1);
+        }
+
+        out.set(union, size);
+        context.write(key, out);
+    }
+}
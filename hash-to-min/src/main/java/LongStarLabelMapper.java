@@ -0,0 +1,16 @@
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapreduce.Mapper;
+
+import java.io.IOException;
+
+// Primitive-mode StarLabelMapper
+public class LongStarLabelMapper extends Mapper<LongWritable, LongClusterWritable, LongWritable, LongWritable> {
+    private LongWritable label = new LongWritable();
+
+    public void map(LongWritable key, LongClusterWritable value, Context context) throws IOException, InterruptedException {
+        if (value.getSize() == 0) return;
+        label.set(value.getIds()[0]);
+        context.write(key, label);
+        context.write(label, label);
+    }
+}
@@ -0,0 +1,16 @@
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapreduce.Reducer;
+
+import java.io.IOException;
+
+// Primitive-mode StarLabelReducer
+public class LongStarLabelReducer extends Reducer<LongWritable, LongWritable, LongWritable, LongWritable> {
+    private LongWritable label = new LongWritable();
+
+    public void reduce(LongWritable key, Iterable<LongWritable> values, Context context) throws IOException, InterruptedException {
+        long min = Long.MAX_VALUE;
+        for (LongWritable value : values) min = Math.min(min, value.get());
+        label.set(min);
+        context.write(key, label);
+    }
+}
@@ -0,0 +1,70 @@
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.Mapper;
+
+import java.io.IOException;
+
+// Primitive-mode StarMapper
+public class LongStarMapper extends Mapper<LongWritable, Writable, LongWritable, LongClusterWritable> {
+    private LongWritable word = new LongWritable();
+    private LongClusterWritable neighbor = new LongClusterWritable();
+    private long[] single = new long[1];
+    private boolean largeStar;
+
+    @Override
+    protected void setup(Context context) {
+        largeStar = context.getConfiguration().getBoolean(SingleJobDriver.LARGE_STAR, true);
+    }
+
+    public void map(LongWritable key, Writable value, Context context) throws IOException, InterruptedException {
+        long u;
+        long[] vs;
+        int size;
+        if (value instanceof Text) {
+            String[] parts = value.toString().split("\t");
+            String[] neighbors = parts.length > 1 ? parts[1].split(",") : new String[0];
+            u = parseId(parts[0]);
+            vs = new long[neighbors.length];
+            size = 0;
+            for (String v : neighbors) {
+                if (!v.isEmpty()) vs[size++] = parseId(v);
+            }
+        } else {
+            LongClusterWritable in = (LongClusterWritable) value;
+            u = key.get();
+            vs = in.getIds();
+            size = in.getSize();
+        }
+
+        boolean hasEdge = false;
+        for (int i = 0; i < size; i++) {
+            long v = vs[i];
+            if (v == u) continue;
+            hasEdge = true;
+            if (largeStar) {
+                emit(u, v, context);
+                emit(v, u, context);
+            } else {
+                emit(Math.max(u, v), Math.min(u, v), context);
+            }
+        }
+        // Keep isolated nodes alive as a self-loop
+        if (!hasEdge) emit(u, u, context);
+    }
+
+    private void emit(long to, long id, Context context) throws IOException, InterruptedException {
+        word.set(to);
+        single[0] = id;
+        neighbor.set(single, 1);
+        context.write(word, neighbor);
+    }
+
+    private static long parseId(String id) throws IOException {
+        try {
+            return Long.parseLong(id.trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Primitive mode needs numeric node IDs, got: " + id);
+        }
+    }
+}
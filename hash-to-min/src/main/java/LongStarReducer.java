@@ -0,0 +1,71 @@
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.Reducer;
+
+import java.io.IOException;
+
+// Primitive-mode StarReducer
+public class LongStarReducer extends Reducer<LongWritable, LongClusterWritable, LongWritable, LongClusterWritable> {
+    private Counter clustersChanged;
+    private LongWritable source = new LongWritable();
+    private LongClusterWritable target = new LongClusterWritable();
+    private long[] single = new long[1];
+    private long[] neighbors = new long[16];
+    private boolean largeStar;
+
+    @Override
+    protected void setup(Context context) {
+        clustersChanged = context.getCounter(HashToMinReducer.COUNTER_GROUP, HashToMinReducer.CLUSTERS_CHANGED);
+        largeStar = context.getConfiguration().getBoolean(SingleJobDriver.LARGE_STAR, true);
+    }
+
+    public void reduce(LongWritable key, Iterable<LongClusterWritable> values, Context context) throws IOException, InterruptedException {
+        long u = key.get();
+        int size = 0;
+        for (LongClusterWritable cluster : values) {
+            int n = cluster.getSize();
+            if (neighbors.length < size + n) {
+                long[] grown = new long[Math.max(size + n, neighbors.length * 2)];
+                System.arraycopy(neighbors, 0, grown, 0, size);
+                neighbors = grown;
+            }
+            for (int i = 0; i < n; i++) {
+                long v = cluster.getIds()[i];
+                if (v != u) neighbors[size++] = v;
+            }
+        }
+        size = LongClusterWritable.sortUnique(neighbors, size);
+
+        if (size == 0) {
+            write(u, u, context);
+            return;
+        }
+        long m = Math.min(neighbors[0], u);
+
+        if (largeStar) {
+            // Hang every larger neighbor off the smallest node in u's neighborhood
+            for (int i = 0; i < size; i++) {
+                if (neighbors[i] > u) {
+                    write(neighbors[i], m, context);
+                    if (m != u) clustersChanged.increment(1);
+                }
+            }
+        } else {
+            // u and its smaller neighbors all point at the smallest of them
+            if (m != u) write(u, m, context);
+            for (int i = 0; i < size; i++) {
+                if (neighbors[i] != m) {
+                    write(neighbors[i], m, context);
+                    clustersChanged.increment(1);
+                }
+            }
+        }
+    }
+
+    private void write(long v, long m, Context context) throws IOException, InterruptedException {
+        source.set(v);
+        single[0] = m;
+        target.set(single, 1);
+        context.write(source, target);
+    }
+}
@@ -0,0 +1,50 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+// Interns node IDs to dense ints 0..size()-1 for the in-memory engines
+public class NodeDictionary {
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] names = new String[1024];
+    private int size;
+
+    public int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null) return id;
+        if (size == names.length) names = Arrays.copyOf(names, size * 2);
+        names[size] = name;
+        ids.put(name, size);
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String name(int id) {
+        return names[id];
+    }
+
+    // Renumbers the IDs so that their int order matches the given order of names; returns old ID -> new ID
+    public int[] sort(Comparator<String> order) {
+        Integer[] byName = new Integer[size];
+        for (int i = 0; i < size; i++) byName[i] = i;
+        Arrays.sort(byName, (a, b) -> order.compare(names[a], names[b]));
+
+        int[] remap = new int[size];
+        String[] sorted = new String[size];
+        for (int i = 0; i < size; i++) {
+            remap[byName[i]] = i;
+            sorted[i] = names[byName[i]];
+        }
+        names = sorted;
+        for (int i = 0; i < size; i++) ids.put(names[i], i);
+        return remap;
+    }
+
+    // Node ID order used by the default text mode (lexicographic) or by primitive mode (numeric)
+    public static Comparator<String> order(boolean numeric) {
+        return numeric ? Comparator.comparingLong(Long::parseLong) : Comparator.naturalOrder();
+    }
+}
@@ -1,23 +1,57 @@
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class OutputParser {
 
-    public static void main(String[] args) throws IOException {
-        if (args.length != 2) {
-            System.err.println("Usage: java OutputParser <input-file> <output-file>");
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: java OutputParser <input-file-or-dir> <output-file> [threads]");
             System.exit(1);
         }
         String inputPath  = args[0];
         String outputPath = args[1];
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
 
-        // 1) Read & canonicalize clusters, collapse duplicates
-        // Map: canonicalClusterString -> representativeKey
-        Map<String, String> canonToRep = new HashMap<>();
-        // Map: canonicalClusterString -> clusterSet
-        Map<String, Set<String>> canonToSet = new HashMap<>();
+        List<File> inputs = listInputs(new File(inputPath));
 
-        try (BufferedReader br = new BufferedReader(new FileReader(inputPath))) {
+        // 1) Stream every "key<TAB>id,id,..." line into a union-find; the root of each set is its smallest ID.
+        // With several threads each one folds a share of the part files into its own union-find, and those are
+        // merged afterwards.
+        StringUnionFind uf;
+        if (threads <= 1 || inputs.size() <= 1) {
+            uf = new StringUnionFind(Comparator.naturalOrder());
+            for (File f : inputs) collapse(f, uf);
+        } else {
+            uf = collapseInParallel(inputs, threads);
+        }
+
+        // 2) Write each component as it is walked from its root: the smallest ID is the representative, the rest
+        // are members. Only the component being written is held outside the union-find.
+        long count = 0;
+        List<String> members = new ArrayList<>();
+        try (BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputPath), StandardCharsets.UTF_8))) {
+            for (String rep : uf.nodes()) {
+                if (!uf.isRoot(rep)) continue;
+                members.clear();
+                uf.forEachMember(rep, members::add);
+                members.remove(0);
+                Collections.sort(members);
+
+                bw.write(rep + "\t" + String.join(",", members));
+                bw.newLine();
+                count++;
+            }
+        }
+
+        System.out.printf("Wrote %,d connected components to %s%n", count, outputPath);
+    }
+
+    private static void collapse(File input, StringUnionFind uf) throws IOException {
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(input), StandardCharsets.UTF_8))) {
             String line;
             while ((line = br.readLine()) != null) {
                 line = line.trim();
@@ -25,70 +59,43 @@ public class OutputParser {
 
                 String[] parts = line.split("\t", 2);
                 String key = parts[0];
-                String[] vals = parts[1].split(",");
-
-                // Build the full set S = {key} ∪ vals
-                Set<String> cluster = new HashSet<>();
-                cluster.add(key);
-                for (String v : vals) {
-                    if (!v.isEmpty()) cluster.add(v);
-                }
-
-                // Canonical string: sorted, comma-joined
-                List<String> sorted = new ArrayList<>(cluster);
-                Collections.sort(sorted);
-                String canon = String.join(",", sorted);
-
-                // Collapse duplicates: pick lexicographically smallest representative
-                if (canonToRep.containsKey(canon)) {
-                    String oldRep = canonToRep.get(canon);
-                    if (key.compareTo(oldRep) < 0) {
-                        canonToRep.put(canon, key);
-                    }
-                } else {
-                    canonToRep.put(canon, key);
-                    canonToSet.put(canon, cluster);
+                uf.find(key);
+                for (String v : parts[1].split(",")) {
+                    if (!v.isEmpty()) uf.union(key, v);
                 }
             }
         }
+    }
 
-        // 2) Extract unique clusters and sort by size descending
-        List<Set<String>> allSets = new ArrayList<>(canonToSet.values());
-        allSets.sort((a, b) -> Integer.compare(b.size(), a.size()));
-
-        // 3) Keep only maximal clusters (drop any strict subset)
-        List<Set<String>> maximal = new ArrayList<>();
-        for (Set<String> s : allSets) {
-            boolean isSubset = false;
-            for (Set<String> m : maximal) {
-                if (m.containsAll(s)) {
-                    isSubset = true;
-                    break;
-                }
+    private static StringUnionFind collapseInParallel(List<File> inputs, int threads) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<StringUnionFind>> parts = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int first = t;
+                parts.add(pool.submit(() -> {
+                    StringUnionFind local = new StringUnionFind(Comparator.naturalOrder());
+                    for (int i = first; i < inputs.size(); i += threads) collapse(inputs.get(i), local);
+                    return local;
+                }));
             }
-            if (!isSubset) maximal.add(s);
-        }
-
-        // 4) Write results
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(outputPath))) {
-            for (Set<String> s : maximal) {
-                // Build canonical string again to look up rep
-                List<String> sorted = new ArrayList<>(s);
-                Collections.sort(sorted);
-                String canon = String.join(",", sorted);
-
-                String rep = canonToRep.get(canon);
-
-                // Members = all elements except the rep
-                List<String> members = new ArrayList<>(sorted);
-                members.remove(rep);
-                String memberStr = String.join(",", members);
-
-                bw.write(rep + "\t" + memberStr);
-                bw.newLine();
+            StringUnionFind uf = new StringUnionFind(Comparator.naturalOrder());
+            for (Future<StringUnionFind> part : parts) {
+                StringUnionFind local = part.get();
+                for (String node : new ArrayList<>(local.nodes())) uf.union(node, local.find(node));
             }
+            return uf;
+        } finally {
+            pool.shutdown();
         }
+    }
 
-        System.out.printf("Wrote %,d unique maximal clusters to %s%n", maximal.size(), outputPath);
+    // A single file, or every part file of a job output directory
+    private static List<File> listInputs(File input) throws IOException {
+        if (!input.isDirectory()) return List.of(input);
+        File[] files = input.listFiles(f -> f.isFile() && !f.getName().startsWith("_") && !f.getName().startsWith("."));
+        if (files == null || files.length == 0) throw new IOException("No input files in " + input);
+        Arrays.sort(files);
+        return Arrays.asList(files);
     }
 }
@@ -0,0 +1,99 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+// Multi-core replacement for Baseline: interns node IDs to ints, builds a CSR adjacency from the edge list
+// and unions every edge into a ConcurrentUnionFind from parallel vertex chunks.
+public class ParallelComponents {
+
+    /**
+     * Labels the connected components of the graph given as a CSR adjacency
+     * (the neighbors of u are targets[offsets[u] .. offsets[u + 1])).
+     */
+    public static ConcurrentUnionFind findComponents(int[] offsets, int[] targets, ForkJoinPool pool) {
+        int n = offsets.length - 1;
+        ConcurrentUnionFind uf = new ConcurrentUnionFind(n);
+        ParallelFor.run(pool, n, u -> {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) uf.union(u, targets[i]);
+        });
+        return uf;
+    }
+
+    // Builds the CSR offsets for the edges src[i] -> dst[i]; the targets are written into targets
+    static int[] buildCsr(int n, int[] src, int[] dst, int m, int[] targets) {
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < m; i++) offsets[src[i] + 1]++;
+        for (int u = 0; u < n; u++) offsets[u + 1] += offsets[u];
+        int[] cursor = Arrays.copyOf(offsets, n);
+        for (int i = 0; i < m; i++) targets[cursor[src[i]]++] = dst[i];
+        return offsets;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java ParallelComponents <edge-list-file> [threads]");
+            System.exit(1);
+        }
+
+        String filename = args[0];
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        NodeDictionary dict = new NodeDictionary();
+        int[] src = new int[1 << 16], dst = new int[1 << 16];
+        int m = 0;
+
+        // 1) Read edges from file; each undirected edge is stored once, which is all union-find needs
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(filename), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.trim().split("\\t");
+                if (parts.length < 2) continue;  // skip bad lines
+
+                if (m == src.length) {
+                    src = Arrays.copyOf(src, m * 2);
+                    dst = Arrays.copyOf(dst, m * 2);
+                }
+                src[m] = dict.intern(parts[0]);
+                dst[m] = dict.intern(parts[1]);
+                m++;
+            }
+        }
+        int n = dict.size();
+        int[] targets = new int[m];
+        int[] offsets = buildCsr(n, src, dst, m, targets);
+        src = null;
+        dst = null;
+
+        // 2) Compute connected components
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        double start = System.currentTimeMillis();
+        ConcurrentUnionFind uf = findComponents(offsets, targets, pool);
+        double end = System.currentTimeMillis();
+        double elapsed = (end - start) / 1000.0;
+        pool.shutdown();
+
+        // 3) Group nodes by root (counting sort) and print each component in sorted order, like Baseline
+        int[] count = new int[n + 1];
+        int[] root = new int[n];
+        for (int u = 0; u < n; u++) {
+            root[u] = uf.find(u);
+            count[root[u] + 1]++;
+        }
+        for (int r = 0; r < n; r++) count[r + 1] += count[r];
+        int[] members = new int[n];
+        int[] cursor = Arrays.copyOf(count, n);
+        for (int u = 0; u < n; u++) members[cursor[root[u]]++] = u;
+
+        int idx = 1;
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16));
+        for (int r = 0; r < n; r++) {
+            if (root[r] != r) continue;
+            List<String> sorted = new ArrayList<>(count[r + 1] - count[r]);
+            for (int i = count[r]; i < count[r + 1]; i++) sorted.add(dict.name(members[i]));
+            Collections.sort(sorted);
+            out.printf("Component %d: %s%n", idx++, sorted);
+        }
+        out.printf("Found %d connected components in %f seconds.%n", idx - 1, elapsed);
+        out.flush();
+    }
+}
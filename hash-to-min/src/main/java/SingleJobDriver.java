@@ -1,12 +1,42 @@
 import org.apache.hadoop.conf.Configured;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapreduce.Job;
 import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.SequenceFileOutputFormat;
+
+import java.util.Locale;
 
 public class SingleJobDriver extends Configured {
+    // Numeric node IDs, long[] clusters and SequenceFile iterations instead of Text
+    public static final String PRIMITIVE = "hashtomin.primitive";
+    // Max node IDs a mapper buffers while merging outgoing clusters in memory; 0 disables it
+    public static final String IN_MAPPER_BUFFER = "hashtomin.inmapper.buffer";
+    // hash-to-min (default), hash-greater-to-min or alternating
+    public static final String STRATEGY = "hashtomin.strategy";
+    // Set per job by the alternating strategy: large-star on even iterations, small-star on odd ones
+    public static final String LARGE_STAR = "hashtomin.star.large";
+
+    // Connected-components algorithms sharing the "node<TAB>id,id,..." format and the ClustersChanged counter:
+    // Hash-to-Min and Hash-Greater-to-Min (Chitnis et al., 2013) and the alternating large-star/small-star
+    // algorithm (Kiveris et al., 2014), whose rounds take two jobs.
+    public enum Strategy {
+        HASH_TO_MIN, HASH_GREATER_TO_MIN, ALTERNATING;
+
+        // Jobs per round; a round in which none of them changed anything has converged
+        public int phases() {
+            return this == ALTERNATING ? 2 : 1;
+        }
+
+        public static Strategy of(Configuration conf) {
+            return valueOf(conf.get(STRATEGY, "hash-to-min").trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
     private final Configuration conf;
 
     public SingleJobDriver(Configuration conf) {
@@ -14,22 +44,50 @@ public class SingleJobDriver extends Configured {
         conf.set("fs.file.impl", "org.apache.hadoop.fs.LocalFileSystem");
     }
 
+    public boolean isPrimitive() {
+        return conf.getBoolean(PRIMITIVE, false);
+    }
+
+    public Strategy getStrategy() {
+        return Strategy.of(conf);
+    }
+
     public Job run(Path inputPath, Path outputPath, int iteration) throws Exception {
 
         Job job = Job.getInstance(conf, "hash-to-min-" + iteration);
         job.setJarByClass(SingleJobDriver.class);
+        boolean star = getStrategy() == Strategy.ALTERNATING;
+        job.getConfiguration().setBoolean(LARGE_STAR, iteration % 2 == 0);
 
-        // 1) Mapper & Reducer
-        job.setMapperClass(HashToMinMapper.class);
-        job.setReducerClass(HashToMinReducer.class);
+        if (isPrimitive()) {
+            // 1) Mapper & Reducer
+            job.setMapperClass(star ? LongStarMapper.class : LongHashToMinMapper.class);
+            job.setCombinerClass(LongHashToMinCombiner.class);
+            job.setReducerClass(star ? LongStarReducer.class : LongHashToMinReducer.class);
 
-        // 2) Map output types
-        job.setMapOutputKeyClass(Text.class);
-        job.setMapOutputValueClass(ClusterWritable.class);
+            // 2) Map output types
+            job.setMapOutputKeyClass(LongWritable.class);
+            job.setMapOutputValueClass(LongClusterWritable.class);
 
-        // 3) Final output types
-        job.setOutputKeyClass(Text.class);
-        job.setOutputValueClass(Text.class);
+            // 3) Final output types; only the first iteration reads text
+            job.setOutputKeyClass(LongWritable.class);
+            job.setOutputValueClass(LongClusterWritable.class);
+            if (iteration > 0) job.setInputFormatClass(SequenceFileInputFormat.class);
+            job.setOutputFormatClass(SequenceFileOutputFormat.class);
+        } else {
+            // 1) Mapper & Reducer
+            job.setMapperClass(star ? StarMapper.class : HashToMinMapper.class);
+            job.setCombinerClass(HashToMinCombiner.class);
+            job.setReducerClass(star ? StarReducer.class : HashToMinReducer.class);
+
+            // 2) Map output types
+            job.setMapOutputKeyClass(Text.class);
+            job.setMapOutputValueClass(TaggedClusterWritable.class);
+
+            // 3) Final output types
+            job.setOutputKeyClass(Text.class);
+            job.setOutputValueClass(Text.class);
+        }
 
 
         // 4) I/O paths
@@ -37,6 +95,47 @@ public class SingleJobDriver extends Configured {
         FileOutputFormat.setOutputPath(job, outputPath);
 
 
+        job.submit();
+        return job;
+    }
+
+    // Final job of the alternating strategy: one "node<TAB>label" text line per node, roots included
+    public Job labelStars(Path inputPath, Path outputPath) throws Exception {
+        Job job = Job.getInstance(conf, "hash-to-min-star-labels");
+        job.setJarByClass(SingleJobDriver.class);
+        if (isPrimitive()) {
+            job.setMapperClass(LongStarLabelMapper.class);
+            job.setCombinerClass(LongStarLabelReducer.class);
+            job.setReducerClass(LongStarLabelReducer.class);
+            job.setInputFormatClass(SequenceFileInputFormat.class);
+            job.setOutputKeyClass(LongWritable.class);
+            job.setOutputValueClass(LongWritable.class);
+        } else {
+            job.setMapperClass(StarLabelMapper.class);
+            job.setCombinerClass(StarLabelReducer.class);
+            job.setReducerClass(StarLabelReducer.class);
+            job.setOutputKeyClass(Text.class);
+            job.setOutputValueClass(Text.class);
+        }
+        FileInputFormat.addInputPath(job, inputPath);
+        FileOutputFormat.setOutputPath(job, outputPath);
+
+        job.submit();
+        return job;
+    }
+
+    // Map-only job turning a primitive-mode iteration into the usual text output
+    public Job exportText(Path inputPath, Path outputPath) throws Exception {
+        Job job = Job.getInstance(conf, "hash-to-min-export");
+        job.setJarByClass(SingleJobDriver.class);
+        job.setMapperClass(LongClusterTextMapper.class);
+        job.setNumReduceTasks(0);
+        job.setInputFormatClass(SequenceFileInputFormat.class);
+        job.setOutputKeyClass(LongWritable.class);
+        job.setOutputValueClass(Text.class);
+        FileInputFormat.addInputPath(job, inputPath);
+        FileOutputFormat.setOutputPath(job, outputPath);
+
         job.submit();
         return job;
     }
@@ -0,0 +1,20 @@
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Mapper;
+
+import java.io.IOException;
+
+// Final job of the alternating algorithm. A converged round leaves stars, one "v<TAB>m" line per leaf v, where
+// the root m never shows up as a key; every line labels both v and m with m.
+public class StarLabelMapper extends Mapper<LongWritable, Text, Text, Text> {
+    private Text node = new Text(), label = new Text();
+
+    public void map(LongWritable key, Text value, Context context) throws IOException, InterruptedException {
+        String[] parts = value.toString().split("\t");
+        if (parts.length < 2) return;
+        node.set(parts[0]);
+        label.set(parts[1]);
+        context.write(node, label);
+        context.write(label, label);
+    }
+}
@@ -0,0 +1,19 @@
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Reducer;
+
+import java.io.IOException;
+
+// One "node<TAB>label" line per node, the label being the smallest one it got; also the combiner
+public class StarLabelReducer extends Reducer<Text, Text, Text, Text> {
+    private Text label = new Text();
+
+    public void reduce(Text key, Iterable<Text> values, Context context) throws IOException, InterruptedException {
+        String min = null;
+        for (Text value : values) {
+            String s = value.toString();
+            if (min == null || s.compareTo(min) < 0) min = s;
+        }
+        label.set(min);
+        context.write(key, label);
+    }
+}
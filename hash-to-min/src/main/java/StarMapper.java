@@ -0,0 +1,47 @@
+import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Mapper;
+
+import java.io.IOException;
+import java.util.Set;
+
+// Map side of the alternating algorithm (Kiveris et al., 2014). Each line "u<TAB>v1,v2,..." is read as
+// the edges (u, vi). Large-star sends every edge to both endpoints, small-star only to its larger one.
+public class StarMapper extends Mapper<LongWritable, Text, Text, TaggedClusterWritable> {
+    private Text word = new Text();
+    private TaggedClusterWritable neighbor = new TaggedClusterWritable();
+    private boolean largeStar;
+
+    @Override
+    protected void setup(Context context) {
+        largeStar = context.getConfiguration().getBoolean(SingleJobDriver.LARGE_STAR, true);
+    }
+
+    public void map(LongWritable key, Text value, Context context) throws IOException, InterruptedException {
+        String[] parts = value.toString().split("\t");
+        String u = parts[0];
+        String[] vs = parts.length > 1 ? parts[1].split(",") : new String[0];
+
+        boolean hasEdge = false;
+        for (String v : vs) {
+            if (v.isEmpty() || v.equals(u)) continue;
+            hasEdge = true;
+            if (largeStar) {
+                emit(u, v, context);
+                emit(v, u, context);
+            } else if (v.compareTo(u) < 0) {
+                emit(u, v, context);
+            } else {
+                emit(v, u, context);
+            }
+        }
+        // Keep isolated nodes alive as a self-loop
+        if (!hasEdge) emit(u, u, context);
+    }
+
+    private void emit(String to, String id, Context context) throws IOException, InterruptedException {
+        word.set(to);
+        neighbor.setCluster(Set.of(id));
+        context.write(word, neighbor);
+    }
+}
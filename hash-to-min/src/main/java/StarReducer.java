@@ -0,0 +1,61 @@
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.Reducer;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+// Reduce side of the alternating algorithm. Writes one "v<TAB>m" line per edge of the rewired graph and
+// counts every edge that was moved, so a large-star plus small-star round with no moves has converged.
+public class StarReducer extends Reducer<Text, TaggedClusterWritable, Text, Text> {
+    private Counter clustersChanged;
+    private Text source = new Text(), target = new Text();
+    private boolean largeStar;
+
+    @Override
+    protected void setup(Context context) {
+        clustersChanged = context.getCounter(HashToMinReducer.COUNTER_GROUP, HashToMinReducer.CLUSTERS_CHANGED);
+        largeStar = context.getConfiguration().getBoolean(SingleJobDriver.LARGE_STAR, true);
+    }
+
+    public void reduce(Text key, Iterable<TaggedClusterWritable> values, Context context) throws IOException, InterruptedException {
+        String u = key.toString();
+        Set<String> neighbors = new HashSet<>();
+        for (TaggedClusterWritable cluster : values) neighbors.addAll(cluster.getCluster());
+        neighbors.remove(u);
+
+        if (neighbors.isEmpty()) {
+            write(u, u, context);
+            return;
+        }
+        String m = Collections.min(neighbors);
+        if (u.compareTo(m) < 0) m = u;
+
+        if (largeStar) {
+            // Hang every larger neighbor off the smallest node in u's neighborhood
+            for (String v : neighbors) {
+                if (v.compareTo(u) > 0) {
+                    write(v, m, context);
+                    if (!m.equals(u)) clustersChanged.increment(1);
+                }
+            }
+        } else {
+            // u and its smaller neighbors all point at the smallest of them
+            if (!m.equals(u)) write(u, m, context);
+            for (String v : neighbors) {
+                if (!v.equals(m)) {
+                    write(v, m, context);
+                    clustersChanged.increment(1);
+                }
+            }
+        }
+    }
+
+    private void write(String v, String m, Context context) throws IOException, InterruptedException {
+        source.set(v);
+        target.set(m);
+        context.write(source, target);
+    }
+}
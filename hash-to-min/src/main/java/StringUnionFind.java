@@ -0,0 +1,61 @@
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Union-find keyed by node ID whose root is always the smallest ID of its set, so find() doubles as the
+// component label. Only the IDs passed to union() or find() are stored; an unseen ID is its own set.
+// The members of each set are also linked in a ring, so a component can be walked from its root.
+public class StringUnionFind {
+    private final Map<String, String> parent = new HashMap<>();
+    private final Map<String, String> next = new HashMap<>();
+    private final Comparator<String> order;
+
+    public StringUnionFind(Comparator<String> order) {
+        this.order = order;
+    }
+
+    public String find(String x) {
+        String root = x;
+        String p;
+        while ((p = parent.putIfAbsent(root, root)) != null && !p.equals(root)) root = p;
+        if (p == null) next.put(root, root);
+        // compress the path behind us
+        while (!x.equals(root)) x = parent.put(x, root);
+        return root;
+    }
+
+    // Returns true if a and b were in different sets
+    public boolean union(String a, String b) {
+        a = find(a);
+        b = find(b);
+        if (a.equals(b)) return false;
+        if (order.compare(a, b) < 0) parent.put(b, a);
+        else parent.put(a, b);
+        // splice the two rings into one
+        next.put(a, next.put(b, next.get(a)));
+        return true;
+    }
+
+    public boolean isRoot(String x) {
+        return x.equals(parent.get(x));
+    }
+
+    // Every member of the set rooted at root, the root first
+    public void forEachMember(String root, Consumer<String> action) {
+        String x = root;
+        do {
+            action.accept(x);
+            x = next.get(x);
+        } while (!x.equals(root));
+    }
+
+    public Set<String> nodes() {
+        return parent.keySet();
+    }
+
+    public int size() {
+        return parent.size();
+    }
+}
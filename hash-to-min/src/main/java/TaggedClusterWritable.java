@@ -1,15 +1,68 @@
-import java.util.Set;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
+// A ClusterWritable that can instead describe a node's previous cluster (fingerprint, min ID and size),
+// so the reducer can tell whether the node's cluster changed in this iteration.
 public class TaggedClusterWritable extends ClusterWritable {
-    private String tag;
-    private Set<String> cluster;
+    public static final byte CLUSTER = 0;
+    public static final byte PREVIOUS = 1;
 
-    public String getTag() {
+    private byte tag = CLUSTER;
+    private long fingerprint;
+    private String previousMin = "";
+    private int previousSize;
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        out.writeByte(tag);
+        if (tag == PREVIOUS) {
+            out.writeLong(fingerprint);
+            out.writeUTF(previousMin);
+            out.writeInt(previousSize);
+        } else {
+            super.write(out);
+        }
+    }
+
+    @Override
+    public void readFields(DataInput in) throws IOException {
+        tag = in.readByte();
+        if (tag == PREVIOUS) {
+            fingerprint = in.readLong();
+            previousMin = in.readUTF();
+            previousSize = in.readInt();
+            getCluster().clear();
+        } else {
+            super.readFields(in);
+        }
+    }
+
+    public byte getTag() {
         return tag;
     }
-    public void setTag(String tag) {
+
+    public void setTag(byte tag) {
         this.tag = tag;
     }
 
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public String getPreviousMin() {
+        return previousMin;
+    }
 
-}
\ No newline at end of file
+    public int getPreviousSize() {
+        return previousSize;
+    }
+
+    // The previous cluster is described over nodes ∪ {self}: its fingerprint, smallest ID and size
+    public void setPrevious(long fingerprint, String min, int size) {
+        this.tag = PREVIOUS;
+        this.fingerprint = fingerprint;
+        this.previousMin = min;
+        this.previousSize = size;
+    }
+}
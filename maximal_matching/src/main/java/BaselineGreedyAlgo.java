@@ -25,8 +25,8 @@ public class BaselineGreedyAlgo {
                 Set<Integer> neighbors = adj.getOrDefault(u, Collections.emptySet());
                 // Look for an unmatched neighbor.
                 for (int v : neighbors) {
-                    // If the neighbor is also not matched.
-                    if (!matchedNodes.contains(v)) {
+                    // If the neighbor is also not matched (a self-loop never is a match).
+                    if (v != u && !matchedNodes.contains(v)) {
                         matching.put(u, v);
                         // mark both u and v as matched
                         matchedNodes.add(u);
@@ -1,39 +1,30 @@
-import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.LongWritable;
 import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Counter;
 import org.apache.hadoop.mapreduce.Mapper;
 import org.apache.hadoop.io.NullWritable;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.net.URI;
-import java.util.HashSet;
-import java.util.Set;
-import org.apache.hadoop.fs.FileSystem;
 
-// Mapper for filterng edges that have endpoints which have been matched in previous runds.
+// Filtering of edges that have endpoints which have been matched in previous runds. Map-only once the input
+// is the output of an earlier filtering round, whose edges are canonical and distinct; the first round
+// dedupes in EdgeFilteringReducer, which then counts the remaining edges instead.
 public class EdgeFilteringMapper extends Mapper<LongWritable, Text, Text, NullWritable> {
 
-    private Set<String> matchedVertices = new HashSet<>(); // Set to store vertices already mached.
+    private MatchedVertexSet matchedVertices; // Set of vertices already mached.
     private Text edgeOutput = new Text();
+    private Counter edgeCount;
 
     @Override
     protected void setup(Context context) throws IOException {
-        // Extract the mached vertices from the cached file
+        if (context.getNumReduceTasks() == 0) edgeCount = context.getCounter("GraphStats", "RemainingEdges");
+        // Open the mached vertices from the cached file
         URI[] cacheFiles = context.getCacheFiles();
-        if (cacheFiles != null && cacheFiles.length > 0) {
-            for (URI cacheFile : cacheFiles) {
-                Path matchedVerticesPath = new Path(cacheFile.getPath());
-                FileSystem fs = FileSystem.get(context.getConfiguration());
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(fs.open(matchedVerticesPath)))) {
-                    String vertex;
-                    while ((vertex = reader.readLine()) != null) {
-                        matchedVertices.add(vertex.trim());
-                    }
-                }
-            }
+        if (cacheFiles == null || cacheFiles.length == 0) {
+            throw new IOException("No matched vertices file in the distributed cache");
         }
+        matchedVertices = MatchedVertexSet.open(context.getConfiguration(), cacheFiles[0]);
     }
 
     @Override
@@ -57,6 +48,8 @@ public class EdgeFilteringMapper extends Mapper<LongWritable, Text, Text, NullWr
                 edgeOutput.set(edgeString);
                 // Emit only edges not filterd out
                 context.write(edgeOutput, NullWritable.get());
+                // Only count the edges that are written (and not the filtered ones)
+                if (edgeCount != null) edgeCount.increment(1);
             }
         }
     }
@@ -2,23 +2,27 @@ import org.apache.hadoop.io.Text;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.Reducer;
 import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.TaskType;
 
 import java.io.IOException;
 
-// Reducer for edge filtering
+// Drops duplicate edges in the first filtering round, where the input may list an edge in both directions
+// or more than once. Also used as the combiner; only the reduce side counts the remaining edges.
 public class EdgeFilteringReducer extends Reducer<Text, NullWritable, Text, NullWritable> {
 
     private Counter edgeCount;
 
     @Override
     protected void setup(Context context) throws IOException, InterruptedException {
-        edgeCount = context.getCounter("GraphStats", "RemainingEdges");
+        if (context.getTaskAttemptID().getTaskType() == TaskType.REDUCE) {
+            edgeCount = context.getCounter("GraphStats", "RemainingEdges");
+        }
     }
 
     @Override
     protected void reduce(Text key, Iterable<NullWritable> values, Context context) throws IOException, InterruptedException {
         context.write(key, NullWritable.get());
         // Only increment counter per each edge that written (and not the filtered ones)
-        edgeCount.increment(1);
+        if (edgeCount != null) edgeCount.increment(1);
     }
-}
\ No newline at end of file
+}
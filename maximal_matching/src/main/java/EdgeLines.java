@@ -0,0 +1,160 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Byte-level reading and writing of "u,v" edge lines for the in-memory matching steps.
+// Spaces and tabs also separate the IDs; lines that do not hold exactly two IDs are skipped.
+public class EdgeLines {
+    static final int BUFFER_SIZE = 1 << 16;
+
+    // Returned by parseId for IDs that are not an integer written the way Long.toString writes it,
+    // so that "007" and "7" stay different vertices
+    public static final long NOT_NUMERIC = Long.MIN_VALUE;
+
+    // Receives the IDs of one edge line as the byte ranges b[u0, u1) and b[v0, v1)
+    public interface Visitor {
+        void edge(byte[] b, int u0, int u1, int v0, int v1) throws IOException;
+    }
+
+    public static void scan(InputStream inputStream, Visitor visitor) throws IOException {
+        byte[] buf = new byte[BUFFER_SIZE];
+        int start = 0, end = 0;
+        boolean eof = false;
+        while (true) {
+            // Process every complete line in the buffer
+            int nl;
+            while ((nl = indexOf(buf, start, end, (byte) '\n')) >= 0) {
+                visitLine(buf, start, nl, visitor);
+                start = nl + 1;
+            }
+            if (eof) {
+                // A last line without a trailing newline
+                if (start < end) visitLine(buf, start, end, visitor);
+                return;
+            }
+            // Move the partial line to the front (growing the buffer for very long lines) and read more
+            if (start == 0 && end == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+            System.arraycopy(buf, start, buf, 0, end - start);
+            end -= start;
+            start = 0;
+            int n = inputStream.read(buf, end, buf.length - end);
+            if (n < 0) eof = true;
+            else end += n;
+        }
+    }
+
+    private static void visitLine(byte[] b, int from, int to, Visitor visitor) throws IOException {
+        int u0 = skipSeparators(b, from, to), u1 = skipToken(b, u0, to);
+        int v0 = skipSeparators(b, u1, to), v1 = skipToken(b, v0, to);
+        // Exactly two IDs
+        if (u0 == u1 || v0 == v1 || skipSeparators(b, v1, to) != to) return;
+        visitor.edge(b, u0, u1, v0, v1);
+    }
+
+    public static long parseId(byte[] b, int from, int to) {
+        boolean negative = b[from] == '-';
+        int i = negative ? from + 1 : from;
+        int digits = to - i;
+        // Up to 18 digits cannot overflow; Long.MIN_VALUE itself is rejected with the longer IDs
+        if (digits == 0 || digits > 18 || (b[i] == '0' && (digits > 1 || negative))) return NOT_NUMERIC;
+        long value = 0;
+        for (; i < to; i++) {
+            int d = b[i] - '0';
+            if (d < 0 || d > 9) return NOT_NUMERIC;
+            value = value * 10 + d;
+        }
+        return negative ? -value : value;
+    }
+
+    private static boolean isSeparator(byte c) {
+        return c == ',' || c == ' ' || c == '\t' || c == '\r';
+    }
+
+    private static int skipSeparators(byte[] b, int i, int to) {
+        while (i < to && isSeparator(b[i])) i++;
+        return i;
+    }
+
+    private static int skipToken(byte[] b, int i, int to) {
+        while (i < to && !isSeparator(b[i])) i++;
+        return i;
+    }
+
+    private static int digits(long id) {
+        int n = 1;
+        while (id >= 10) {
+            id /= 10;
+            n++;
+        }
+        return n;
+    }
+
+    private static int indexOf(byte[] b, int from, int to, byte c) {
+        for (int i = from; i < to; i++) {
+            if (b[i] == c) return i;
+        }
+        return -1;
+    }
+
+    // A byte buffer in front of an OutputStream; flush() hands everything to the stream without closing it
+    public static final class Output {
+        private final OutputStream out;
+        private final byte[] buf = new byte[BUFFER_SIZE];
+        private int size;
+
+        public Output(OutputStream out) {
+            this.out = out;
+        }
+
+        public void write(byte c) throws IOException {
+            if (size == buf.length) drain();
+            buf[size++] = c;
+        }
+
+        public void write(byte[] b, int from, int to) throws IOException {
+            if (to - from > buf.length - size) drain();
+            if (to - from > buf.length) {
+                out.write(b, from, to - from);
+                return;
+            }
+            System.arraycopy(b, from, buf, size, to - from);
+            size += to - from;
+        }
+
+        public void write(String s) throws IOException {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            write(bytes, 0, bytes.length);
+        }
+
+        // The decimal digits of id, without going through a String
+        public void write(long id) throws IOException {
+            if (id == Long.MIN_VALUE) {
+                write(Long.toString(id));
+                return;
+            }
+            if (buf.length - size < 20) drain();
+            if (id < 0) {
+                buf[size++] = '-';
+                id = -id;
+            }
+            int end = size + digits(id);
+            for (int i = end - 1; i >= size; i--) {
+                buf[i] = (byte) ('0' + id % 10);
+                id /= 10;
+            }
+            size = end;
+        }
+
+        public void flush() throws IOException {
+            drain();
+            out.flush();
+        }
+
+        private void drain() throws IOException {
+            out.write(buf, 0, size);
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocalFileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+// Matched vertices that EdgeFilteringMapper checks every endpoint against.
+// When every matched ID is a plain integer the set is a file of sorted, distinct longs (8 bytes each,
+// big-endian) that the mappers memory-map from the distributed cache and binary search, so a task's
+// setup neither parses nor allocates per vertex. Otherwise the text file with one vertex per line is
+// cached as before and loaded into a HashSet.
+public abstract class MatchedVertexSet {
+    // Suffix of the sorted long file; the text file keeps its part-r-00000 name
+    public static final String SORTED_SUFFIX = ".bin";
+
+    public abstract boolean contains(String vertex);
+
+    // Writes the vertices listed in text (one per line) to sorted as longs; returns false, writing nothing,
+    // when some vertex is not an integer in canonical form
+    public static boolean compact(FileSystem fs, Path text, Path sorted) throws IOException {
+        long[] ids = new long[1024];
+        int size = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(fs.open(text)))) {
+            String vertex;
+            while ((vertex = reader.readLine()) != null) {
+                vertex = vertex.trim();
+                if (vertex.isEmpty()) continue;
+                if (!isCanonicalLong(vertex)) return false;
+                if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+                ids[size++] = Long.parseLong(vertex);
+            }
+        }
+        Arrays.sort(ids, 0, size);
+        try (DataOutputStream out = new DataOutputStream(fs.create(sorted, true))) {
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || ids[i] != ids[i - 1]) out.writeLong(ids[i]);
+            }
+        }
+        return true;
+    }
+
+    // Opens a cached set: the local symlink named by the URI fragment when the framework created one,
+    // otherwise the file itself
+    public static MatchedVertexSet open(Configuration conf, URI cacheFile) throws IOException {
+        Path path = new Path(cacheFile.getPath());
+        File local = cacheFile.getFragment() == null ? null : new File(cacheFile.getFragment());
+        FileSystem fs = path.getFileSystem(conf);
+        if ((local == null || !local.exists()) && fs instanceof LocalFileSystem) {
+            local = ((LocalFileSystem) fs).pathToFile(path);
+        }
+
+        if (!path.getName().endsWith(SORTED_SUFFIX)) {
+            Set<String> vertices = new HashSet<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(fs.open(path)))) {
+                String vertex;
+                while ((vertex = reader.readLine()) != null) vertices.add(vertex.trim());
+            }
+            return new Strings(vertices);
+        }
+        if (local != null && local.exists()) {
+            try (RandomAccessFile file = new RandomAccessFile(local, "r"); FileChannel channel = file.getChannel()) {
+                // The mapping stays valid after the channel is closed
+                return new SortedLongs(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asLongBuffer());
+            }
+        }
+        // Not on a local disk: copy it onto the heap, still 8 bytes per vertex
+        long[] ids = new long[(int) (fs.getFileStatus(path).getLen() / Long.BYTES)];
+        try (DataInputStream in = new DataInputStream(fs.open(path))) {
+            for (int i = 0; i < ids.length; i++) ids[i] = in.readLong();
+        }
+        return new SortedLongs(LongBuffer.wrap(ids));
+    }
+
+    // Whether s is exactly Long.toString of some long, so that equal IDs are equal strings
+    static boolean isCanonicalLong(String s) {
+        int start = s.startsWith("-") ? 1 : 0;
+        int n = s.length() - start;
+        if (n == 0 || n > 19 || (s.charAt(start) == '0' && (n > 1 || start == 1))) return false;
+        for (int i = start; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        if (n < 19) return true;
+        try {
+            Long.parseLong(s);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    static class SortedLongs extends MatchedVertexSet {
+        private final LongBuffer ids;
+
+        SortedLongs(LongBuffer ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public boolean contains(String vertex) {
+            // Every matched ID is canonical, so anything else is unmatched
+            if (!isCanonicalLong(vertex)) return false;
+            long id = Long.parseLong(vertex);
+            int lo = 0, hi = ids.limit() - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                long cur = ids.get(mid);
+                if (cur < id) lo = mid + 1;
+                else if (cur > id) hi = mid - 1;
+                else return true;
+            }
+            return false;
+        }
+    }
+
+    static class Strings extends MatchedVertexSet {
+        private final Set<String> vertices;
+
+        Strings(Set<String> vertices) {
+            this.vertices = vertices;
+        }
+
+        @Override
+        public boolean contains(String vertex) {
+            return vertices.contains(vertex);
+        }
+    }
+}
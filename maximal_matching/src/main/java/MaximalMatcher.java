@@ -0,0 +1,49 @@
+import org.apache.hadoop.conf.Configuration;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ForkJoinPool;
+
+// A maximal matching over "u,v" edge lines (see EdgeLines), used for MaximalMatchingDriver's in-memory steps.
+// Close it when done; it may hold worker threads.
+public interface MaximalMatcher extends Closeable {
+    // sequential (default): SequentialMaximalMatching; parallel: ParallelMaximalMatching
+    String MATCHER = "mm.matcher";
+    // Worker threads of the parallel matcher; defaults to one per core
+    String THREADS = "mm.threads";
+
+    // Finds a maximal matching of the edges read from inputStream and writes its edges as "u,v" lines to
+    // outputStream, and both endpoints of every matched edge, one per line, to matchedVerticesStream (if not null).
+    // The streams are flushed but not closed.
+    void findMatching(InputStream inputStream, OutputStream outputStream, OutputStream matchedVerticesStream) throws IOException;
+
+    default void findMatching(InputStream inputStream, OutputStream outputStream) throws IOException {
+        findMatching(inputStream, outputStream, null);
+    }
+
+    // Heap bytes held by the matcher's own state in the last findMatching
+    long stateBytes();
+
+    // The most state bytes one more input edge could add, judging by the last findMatching; 0 before any
+    double bytesPerEdge();
+
+    @Override
+    default void close() {
+    }
+
+    static MaximalMatcher of(Configuration conf) {
+        String name = conf.get(MATCHER, "sequential");
+        switch (name) {
+            case "sequential":
+                return new SequentialMaximalMatching();
+            case "parallel":
+                int threads = conf.getInt(THREADS, Runtime.getRuntime().availableProcessors());
+                // Same seed as the sampling, so a run with a fixed -Dmm.seed repeats exactly
+                return new ParallelMaximalMatching(new ForkJoinPool(threads), conf.getLong(SamplingMapper.SEED, 0));
+            default:
+                throw new IllegalArgumentException("Unknown " + MATCHER + ": " + name);
+        }
+    }
+}
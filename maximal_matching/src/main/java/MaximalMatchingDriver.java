@@ -3,36 +3,50 @@ import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.TaskCounter;
 import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
 import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.SequenceFileOutputFormat;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.FileStatus;
-import org.apache.hadoop.fs.FileUtil;
+import org.apache.hadoop.util.GenericOptionsParser;
 
 import java.io.*;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 // Class that manages the parallel maximal matching algorithm
 public class MaximalMatchingDriver {
     public static void main(String[] args) throws Exception {
         Configuration conf = new Configuration();
+        // Accept -D options such as -Dgraph.metrics.file ahead of the positional arguments
+        args = new GenericOptionsParser(conf, args).getRemainingArgs();
+        if (args.length < 2) {
+            System.err.println("Usage: MaximalMatchingDriver [-D" + SampleBudget.BUDGET + "=<bytes>] [-D" + SamplingMapper.SEED + "=<n>]"
+                    + " [-D" + MaximalMatcher.MATCHER + "=sequential|parallel] <input> <outputDir> [total_edges] [mem_thresh]");
+            System.exit(2);
+        }
         Path inputPath = new Path(args[0]);
         Path outputBasePath = new Path(args[1]);
 
-        long totalInitialEdges = Long.parseLong(args[2]);
+        // Get the Hadoop filesystem for file/memory access
+        FileSystem fs = FileSystem.get(conf);
+
+        // The edge count only sets the first sampling probability, so an estimate from the input size will do
+        long totalInitialEdges = args.length > 2 ? Long.parseLong(args[2]) : estimateEdges(fs, inputPath);
         conf.setLong("total_edges", totalInitialEdges);
 
-        // Memory threshold as specified in (Lattanzi et al., 2011)
-        long mem_thresh = Long.parseLong(args[3]);
+        // Memory threshold as specified in (Lattanzi et al., 2011); optional cap on top of the heap budget
+        long mem_thresh = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        SampleBudget budget = new SampleBudget(conf, mem_thresh);
 
         Path currentInputPath = inputPath;
         Path matchedVerticesPath = null;
         Path nextInputPath = null;
         long currentEdgeSetSize = totalInitialEdges;
 
-        // Get the Hadoop filesystem for file/memory access
-        FileSystem fs = FileSystem.get(conf);
-
         // Clean up output directory from previous runs to prevnt errors as an empty/non-existing directory/path is expected
         fs.delete(outputBasePath, true);
 
@@ -40,126 +54,126 @@ public class MaximalMatchingDriver {
         Path finalMatchingPath = new Path(outputBasePath, "final_maximal_matching");
         fs.mkdirs(finalMatchingPath);
 
+        // In-memory matching for the sampled and the remaining edges (-Dmm.matcher=sequential|parallel)
+        MaximalMatcher matcher = MaximalMatcher.of(conf);
+
+        // Per-round timings and counters, written next to the results
+        IterationMetrics metrics = new IterationMetrics(conf, outputBasePath);
+        long start;
+
         int iter = 1;
         while (true){
             conf.setInt("current_iter", iter);
-            conf.setLong("mem_thresh", mem_thresh);
             conf.setLong("current_edges_count", currentEdgeSetSize);
+            double probability = budget.probability(currentEdgeSetSize);
 
-            // Round 1: Sampling edges
+            // Round 1: Sampling edges (map-only, the proposed edges are written straight from the mappers as
+            // binary VertexPairWritable records; -Dmm.seed picks the sample). A sample that would not fit the
+            // in-memory step is drawn again with a lower probability; with the same seed it is a subset.
             Path sampledEdgesOutputPath = new Path(outputBasePath, "sampled_edges_round_" + iter);
-            Job job1 = Job.getInstance(conf, "MM - Sampling " + iter);
-            job1.setJarByClass(MaximalMatchingDriver.class);
-            job1.setMapperClass(SamplingMapper.class);
-            job1.setReducerClass(SamplingReducer.class);
-            job1.setMapOutputKeyClass(Text.class);
-            job1.setMapOutputValueClass(Text.class);
-            job1.setOutputKeyClass(Text.class);
-            job1.setOutputValueClass(NullWritable.class);
-            FileInputFormat.addInputPath(job1, currentInputPath);
-            FileOutputFormat.setOutputPath(job1, sampledEdgesOutputPath);
-
-            // Clean up output directory from previous runs to prevnt errors as an empty/non-existing directory/path is expected
-            fs.delete(sampledEdgesOutputPath, true);
-
-            if (!job1.waitForCompletion(true)) {
-                System.err.println("Round 1 (Sampling) failed in iteration " + iter);
-                System.exit(1);
+            long sampledEdges;
+            while (true) {
+                conf.setDouble(SamplingMapper.PROBABILITY, probability);
+                Job job1 = Job.getInstance(conf, "MM - Sampling " + iter);
+                job1.setJarByClass(MaximalMatchingDriver.class);
+                job1.setMapperClass(SamplingMapper.class);
+                job1.setNumReduceTasks(0);
+                job1.setOutputKeyClass(VertexPairWritable.class);
+                job1.setOutputValueClass(NullWritable.class);
+                job1.setOutputFormatClass(SequenceFileOutputFormat.class);
+                FileInputFormat.addInputPath(job1, currentInputPath);
+                FileOutputFormat.setOutputPath(job1, sampledEdgesOutputPath);
+
+                // Clean up output directory from previous runs to prevnt errors as an empty/non-existing directory/path is expected
+                fs.delete(sampledEdgesOutputPath, true);
+
+                start = System.currentTimeMillis();
+                if (!job1.waitForCompletion(true)) {
+                    System.err.println("Round 1 (Sampling) failed in iteration " + iter);
+                    System.exit(1);
+                }
+                metrics.recordJob(iter, job1, System.currentTimeMillis() - start, currentEdgeSetSize);
+
+                sampledEdges = job1.getCounters().findCounter("GraphStats", "SampledEdges").getValue();
+                // The first iteration may have started from an estimate
+                currentEdgeSetSize = job1.getCounters().findCounter(TaskCounter.MAP_INPUT_RECORDS).getValue();
+                if (sampledEdges <= budget.capacity()) break;
+                System.out.printf("Iteration %d: %,d sampled edges exceed the in-memory capacity of %,d; sampling again%n",
+                        iter, sampledEdges, budget.capacity());
+                probability *= SampleBudget.FILL * budget.capacity() / sampledEdges;
             }
 
-            // Sequential Maximal Matching on sampled edges.
-            Path sequentialMatchingOutputPath = new Path(outputBasePath, "sequential_matching_round_" + iter);
-            Path sequentialMatchingOutputPart = new Path(sequentialMatchingOutputPath, "part-r-00000");
-
-            // Handle directory for sequential step
-            fs.delete(sequentialMatchingOutputPath, true);
-            fs.mkdirs(sequentialMatchingOutputPath);
+            // In-memory maximal matching on sampled edges. The matched edges go straight to the final matching
+            // directory and their endpoints to the matched vertices file that the filtering job caches.
+            Path finalMatchingIterationPart = new Path(finalMatchingPath, "part-r-iter-" + iter);
+            matchedVerticesPath = new Path(outputBasePath, "matched_vertices_round_" + iter);
+            Path matchedVerticesPartFile = new Path(matchedVerticesPath, "part-r-00000");
+            fs.delete(matchedVerticesPath, true);
 
-            // Run sequential maximal matching on sampled edges
+            start = System.currentTimeMillis();
             try (
                     // Confirm input and output streams have been create
-                    InputStream is = fs.open(findFirstPartFile(fs, sampledEdgesOutputPath));
-                    OutputStream os = fs.create(sequentialMatchingOutputPart);
+                    InputStream is = readSampledEdges(fs, sampledEdgesOutputPath, conf);
+                    OutputStream os = fs.create(finalMatchingIterationPart);
+                    OutputStream vs = fs.create(matchedVerticesPartFile);
             ) {
-                SequentialMaximalMatching sequentialMatcher = new SequentialMaximalMatching();
-                sequentialMatcher.findMatching(is, os);
+                matcher.findMatching(is, os, vs);
             } catch (IOException e) {
                 System.err.println("Error from running the sequential matching for iteration " + iter + ": " + e.getMessage());
                 System.exit(1);
             }
-
-            // Round 2: Identifies the matched vertices from the sequential matching
-            matchedVerticesPath = new Path(outputBasePath, "matched_vertices_round_" + iter);
-            Job job2 = Job.getInstance(conf, "MM - Identify Matched Vertices " + iter);
+            metrics.recordStep(iter, "MM - Sequential Matching " + iter, System.currentTimeMillis() - start, currentEdgeSetSize);
+            long footprint = budget.endStep(sampledEdges, matcher);
+            System.out.printf("Iteration %d: p=%.4g, %,d of %,d edges sampled, matcher state %,d bytes (%.0f bytes/edge at most)%n",
+                    iter, probability, sampledEdges, currentEdgeSetSize, footprint, budget.bytesPerEdge());
+
+            // Round 2: Filtering edges for the next round. The raw input may repeat an edge, so the first round
+            // dedupes the canonical u,v lines in a reducer; later rounds read distinct edges and are map-only.
+            // Either way RemainingEdges counts the distinct edges left.
+            nextInputPath = new Path(outputBasePath, "filtered_edges_round_" + iter);
+            Job job2 = Job.getInstance(conf, "MM - Edge Filtering " + iter);
             job2.setJarByClass(MaximalMatchingDriver.class);
-            job2.setMapperClass(MatchedVertexMapper.class);
-            job2.setReducerClass(MatchedVertexReducer.class);
-            job2.setMapOutputKeyClass(Text.class);
-            job2.setMapOutputValueClass(Text.class);
+            job2.setMapperClass(EdgeFilteringMapper.class);
+            if (iter == 1) {
+                job2.setCombinerClass(EdgeFilteringReducer.class);
+                job2.setReducerClass(EdgeFilteringReducer.class);
+            } else {
+                job2.setNumReduceTasks(0);
+            }
             job2.setOutputKeyClass(Text.class);
             job2.setOutputValueClass(NullWritable.class);
-            FileInputFormat.addInputPath(job2, sequentialMatchingOutputPath);
-            FileOutputFormat.setOutputPath(job2, matchedVerticesPath);
 
-            fs.delete(matchedVerticesPath, true);
-
-            if (!job2.waitForCompletion(true)) {
-                System.err.println("Round 2 (Matched Vertices) failed in iteration " + iter);
-                System.exit(1);
-            }
-
-            // Round 3: Filtering edges for the next round.
-            nextInputPath = new Path(outputBasePath, "filtered_edges_round_" + iter);
-            Job job3 = Job.getInstance(conf, "MM - Edge Filtering " + iter);
-            job3.setJarByClass(MaximalMatchingDriver.class);
-            job3.setMapperClass(EdgeFilteringMapper.class);
-            job3.setReducerClass(EdgeFilteringReducer.class);
-            job3.setOutputKeyClass(Text.class);
-            job3.setOutputValueClass(NullWritable.class);
-
-            // Set input path for Job 3 (edges from previous round) and output for this round
-            FileInputFormat.addInputPath(job3, currentInputPath);
-            FileOutputFormat.setOutputPath(job3, nextInputPath);
+            // Set input path for Job 2 (edges from previous round) and output for this round
+            FileInputFormat.addInputPath(job2, currentInputPath);
+            FileOutputFormat.setOutputPath(job2, nextInputPath);
 
             fs.delete(nextInputPath, true);
 
-            // Add the matched vertices file to cache for the mapper
-            Path matchedVerticesPartFile = new Path(matchedVerticesPath, "part-r-00000");
-            if (!fs.exists(matchedVerticesPartFile)) {
-                System.err.println("Matched vertices file not found for Distributed Cache in iteration " + iter);
-                System.exit(1);
-            }
-            job3.addCacheFile(new URI(matchedVerticesPartFile.toUri().toString()));
-
-            if (!job3.waitForCompletion(true)) {
-                System.err.println("Round 3 (Edge Filtering) failed in iteration " + iter);
-                System.exit(1);
-            }
-
-            // Get the number of remaining edges from Job 3's counter
-            currentEdgeSetSize = job3.getCounters().findCounter("GraphStats", "RemainingEdges").getValue();
+            // Add the matched vertices to cache for the mapper: sorted longs when every ID is numeric, the text file otherwise
+            Path matchedVerticesSorted = new Path(matchedVerticesPath, "matched_vertices" + MatchedVertexSet.SORTED_SUFFIX);
+            Path cachedVertices = MatchedVertexSet.compact(fs, matchedVerticesPartFile, matchedVerticesSorted)
+                    ? matchedVerticesSorted : matchedVerticesPartFile;
+            job2.addCacheFile(new URI(cachedVertices.toUri() + "#matched_vertices"));
 
-            // Add the matched edges from this iteration's sequential step to the final matching directory (for debuging)
-            Path finalMatchingIterationPart = new Path(finalMatchingPath, "part-r-iter-" + iter);
-            // Copy the sequential matching file into the final matching directory with a unique name.
-            try {
-                FileUtil.copy(fs, sequentialMatchingOutputPart, fs, finalMatchingIterationPart, false, conf);
-            } catch (IOException e) {
-                System.err.println("Error copying sequential matching part for iteration " + iter + ": " + e.getMessage());
-                e.printStackTrace();
+            start = System.currentTimeMillis();
+            if (!job2.waitForCompletion(true)) {
+                System.err.println("Round 2 (Edge Filtering) failed in iteration " + iter);
                 System.exit(1);
             }
 
+            // Get the number of remaining edges from Job 2's counter
+            currentEdgeSetSize = job2.getCounters().findCounter("GraphStats", "RemainingEdges").getValue();
+            metrics.recordJob(iter, job2, System.currentTimeMillis() - start, currentEdgeSetSize);
 
             // Check if the remaining graph size is small enough to stop iterating.
-            if (currentEdgeSetSize <= mem_thresh && currentEdgeSetSize > 0) {
+            if (currentEdgeSetSize <= budget.capacity() && currentEdgeSetSize > 0) {
                 currentInputPath = nextInputPath;
                 break;
             } else if (currentEdgeSetSize == 0) {
                 currentInputPath = nextInputPath;
                 break;
             } else {
-                // Prepare for the next iteration: input is the output of round 3.
+                // Prepare for the next iteration: input is the output of round 2.
                 currentInputPath = nextInputPath;
             }
             iter += 1; // Increment iteration counter.
@@ -169,70 +183,65 @@ public class MaximalMatchingDriver {
         // If edges remain and the size is below the memory threshold, run sequential matching on the rest.
         if (currentEdgeSetSize > 0) { // Only run if there are edges left
 
-            Path finalSequentialMatchingOutputPath = new Path(outputBasePath, "final_sequential_matching");
-            Path finalSequentialMatchingOutputPart = new Path(finalSequentialMatchingOutputPath, "part-r-00000");
-
-            fs.delete(finalSequentialMatchingOutputPath, true);
-            fs.mkdirs(finalSequentialMatchingOutputPath);
-
-            InputStream finalSequentialInputStream;
-            Path inputForFinalSequential = currentInputPath;
-
-            try {
-                if (iter > 1) {
-                    // Input is the output of the last round
-                    finalSequentialInputStream = fs.open(findFirstPartFile(fs, inputForFinalSequential));
-                } else {
-                    // Input is the original inputPath since iter==1
-                    if (fs.isDirectory(inputForFinalSequential)) {
-                        FileStatus[] inputFiles = fs.listStatus(inputForFinalSequential, path -> !path.getName().startsWith("_") && !path.getName().startsWith("."));
-                        if (inputFiles.length > 0) {
-                            finalSequentialInputStream = fs.open(inputFiles[0].getPath());
-                        } else {
-                            throw new IOException("Input directory is empty: " + inputForFinalSequential);
-                        }
-                    } else {
-                        // Open direclty if its just a single file
-                        finalSequentialInputStream = fs.open(inputForFinalSequential);
-                    }
-                }
-
+            // The loop always ends on a filtering job's output, so the remaining edges are its part files
+            start = System.currentTimeMillis();
+            try (
+                    InputStream is = openPartFiles(fs, currentInputPath);
+                    OutputStream os = fs.create(new Path(finalMatchingPath, "part-r-final-sequential"));
+            ) {
                 // Run sequential maximal matching on the remaining edges.
-                try (
-                        InputStream is = finalSequentialInputStream;
-                        OutputStream os = fs.create(finalSequentialMatchingOutputPart);
-                ) {
-                    SequentialMaximalMatching sequentialMatcher = new SequentialMaximalMatching(); // Create sequential matcher.
-                    sequentialMatcher.findMatching(is, os); // Run sequential algorithm.
-                }
-
+                matcher.findMatching(is, os);
             } catch (IOException e) {
                 System.err.println("Error running final sequential matching: " + e.getMessage());
                 e.printStackTrace();
                 System.exit(1);
             }
-
-            Path finalMatchingFinalPart = new Path(finalMatchingPath, "part-r-final-sequential");
-            try {
-                FileUtil.copy(fs, finalSequentialMatchingOutputPart, fs, finalMatchingFinalPart, false, conf);
-            } catch (IOException e) {
-                System.err.println("Error copying final sequential matching part: " + e.getMessage());
-                e.printStackTrace();
-                System.exit(1);
-            }
+            metrics.recordStep(iter + 1, "MM - Final Sequential Matching", System.currentTimeMillis() - start, 0);
         }
+        matcher.close();
+        System.out.printf("Maximal matching done in %.2f seconds; per-round metrics in %s%n",
+                metrics.totalMillis() / 1000.0, metrics.getFile());
         // Exit upon suceess
         System.exit(0);
     }
 
-    // Finds the first "part-r-" file in a directory.
-    private static Path findFirstPartFile(FileSystem fs, Path directoryPath) throws IOException {
-        FileStatus[] statuses = null;
-        statuses = fs.listStatus(directoryPath, path -> path.getName().startsWith("part-r-"));
+    // Input bytes over the bytes per line of the first 1 MB of the first file
+    private static long estimateEdges(FileSystem fs, Path input) throws IOException {
+        FileStatus[] files = fs.getFileStatus(input).isDirectory()
+                ? fs.listStatus(input, path -> !path.getName().startsWith("_") && !path.getName().startsWith("."))
+                : new FileStatus[]{fs.getFileStatus(input)};
+        long bytes = 0;
+        for (FileStatus file : files) bytes += file.getLen();
+        if (files.length == 0 || bytes == 0) return 1;
+
+        byte[] head = new byte[1 << 20];
+        int read = 0, lines = 0;
+        try (InputStream in = fs.open(files[0].getPath())) {
+            int n;
+            while (read < head.length && (n = in.read(head, read, head.length - read)) > 0) read += n;
+        }
+        for (int i = 0; i < read; i++) if (head[i] == '\n') lines++;
+        return Math.max(1, lines == 0 ? 1 : bytes * lines / read);
+    }
+
+    // Streams the proposed edges of a sampling job as "u,v" lines for the in-memory matcher
+    private static InputStream readSampledEdges(FileSystem fs, Path directoryPath, Configuration conf) throws IOException {
+        FileStatus[] statuses = fs.listStatus(directoryPath, path -> path.getName().startsWith("part-"));
+        Arrays.sort(statuses);
+        List<Path> files = new ArrayList<>();
+        for (FileStatus status : statuses) files.add(status.getPath());
+        return new SampledEdgesInputStream(conf, files);
+    }
 
-        if (statuses != null && statuses.length > 0) {
-            return statuses[0].getPath();
+    // Streams every part file of a job output directory, prefetching ahead of the matcher
+    private static InputStream openPartFiles(FileSystem fs, Path directoryPath) throws IOException {
+        FileStatus[] statuses = fs.listStatus(directoryPath, path -> path.getName().startsWith("part-"));
+        if (statuses.length == 0) {
+            throw new IOException("No part files in directory: " + directoryPath + ". Directory may be empty or job output failed.");
         }
-        throw new IOException("No file found starting with part-r- in directory: " + directoryPath + ". Directory may be empty or job output failed.");
+        Arrays.sort(statuses);
+        List<Path> files = new ArrayList<>();
+        for (FileStatus status : statuses) files.add(status.getPath());
+        return new PartFilesInputStream(fs, files);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,228 @@
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Multi-core maximal matching over a CSR graph (Luby / Israeli-Itai style rounds), a drop-in for
+// SequentialMaximalMatching and a parallel counterpart of BaselineGreedyAlgo.
+//
+// Every edge gets a random priority (a SplitMix64 hash of the seed and its index). Each round, every vertex that still has an unmatched neighbor picks
+// its highest-priority edge to one; an edge picked by both its endpoints is locally dominant and joins the
+// matching, and its endpoints drop out. The globally best remaining edge is always picked from both sides,
+// so every round matches at least one edge, and in expectation a constant fraction of the remaining edges
+// disappear per round. The result is a maximal matching, but not the one the sequential greedy pass finds.
+// Self-loops are never matched.
+public class ParallelMaximalMatching implements MaximalMatcher {
+
+    private final ForkJoinPool pool;
+    private final long seed;
+    private long stateBytes, edges;
+    private int vertices;
+
+    // The matcher owns the pool and shuts it down on close()
+    public ParallelMaximalMatching(ForkJoinPool pool, long seed) {
+        this.pool = pool;
+        this.seed = seed;
+    }
+
+    @Override
+    public void findMatching(InputStream inputStream, OutputStream outputStream, OutputStream matchedVerticesStream) throws IOException {
+        // 1) Read the edges; non-numeric IDs get keys below every numeric one (numeric IDs have at most 18 digits)
+        Map<String, Integer> nameIndex = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        long[][] keys = {new long[1 << 16], new long[1 << 16]};
+        int[] m = {0};
+        EdgeLines.scan(inputStream, (b, u0, u1, v0, v1) -> {
+            if (m[0] == keys[0].length) {
+                keys[0] = Arrays.copyOf(keys[0], m[0] * 2);
+                keys[1] = Arrays.copyOf(keys[1], m[0] * 2);
+            }
+            keys[0][m[0]] = key(b, u0, u1, nameIndex, names);
+            keys[1][m[0]] = key(b, v0, v1, nameIndex, names);
+            m[0]++;
+        });
+
+        // 2) Number the vertices 0..n-1 and match
+        int edges = m[0];
+        long[] table = distinct(keys[0], keys[1], edges);
+        int[] src = new int[edges], dst = new int[edges];
+        ParallelFor.run(pool, edges, i -> {
+            src[i] = Arrays.binarySearch(table, keys[0][i]);
+            dst[i] = Arrays.binarySearch(table, keys[1][i]);
+        });
+        int[] matching = match(table.length, src, dst, edges, pool, seed);
+        this.edges = edges;
+        vertices = table.length;
+        stateBytes = stateBytes(keys[0].length, edges, table.length);
+
+        // 3) Write the matched edges in input order
+        Arrays.sort(matching);
+        EdgeLines.Output writer = new EdgeLines.Output(outputStream);
+        EdgeLines.Output vertexWriter = matchedVerticesStream == null ? null : new EdgeLines.Output(matchedVerticesStream);
+        for (int e : matching) {
+            writeId(writer, table[src[e]], names);
+            writer.write((byte) ',');
+            writeId(writer, table[dst[e]], names);
+            writer.write((byte) '\n');
+            if (vertexWriter != null) {
+                writeId(vertexWriter, table[src[e]], names);
+                vertexWriter.write((byte) '\n');
+                writeId(vertexWriter, table[dst[e]], names);
+                vertexWriter.write((byte) '\n');
+            }
+        }
+        writer.flush();
+        if (vertexWriter != null) vertexWriter.flush();
+    }
+
+    /**
+     * Indices of the edges src[i] - dst[i] (i < m, endpoints in 0..n-1) that form a maximal matching, in the
+     * order they were matched. The priorities, and so the matching, are a function of seed.
+     */
+    public static int[] match(int n, int[] src, int[] dst, int m, ForkJoinPool pool, long seed) {
+        // 1) CSR of incident edge indices, both directions
+        AtomicIntegerArray degree = new AtomicIntegerArray(n);
+        ParallelFor.run(pool, m, i -> {
+            if (src[i] == dst[i]) return;
+            degree.incrementAndGet(src[i]);
+            degree.incrementAndGet(dst[i]);
+        });
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) offsets[v + 1] = offsets[v] + degree.get(v);
+        AtomicIntegerArray cursor = new AtomicIntegerArray(Arrays.copyOf(offsets, n));
+        int[] incident = new int[offsets[n]];
+        ParallelFor.run(pool, m, i -> {
+            if (src[i] == dst[i]) return;
+            incident[cursor.getAndIncrement(src[i])] = i;
+            incident[cursor.getAndIncrement(dst[i])] = i;
+        });
+        long[] priority = new long[m];
+        ParallelFor.run(pool, m, i -> priority[i] = SplitMix64.hash(seed, i, 0));
+
+        byte[] matched = new byte[n];
+        int[] best = new int[n];
+        int[] result = new int[n / 2];
+        AtomicInteger size = new AtomicInteger();
+        int[] active = new int[n];
+        int live = 0;
+        for (int v = 0; v < n; v++) if (offsets[v + 1] > offsets[v]) active[live++] = v;
+
+        while (live > 0) {
+            int[] current = active;
+            int count = live;
+
+            // 2) every active vertex picks its best edge to an unmatched neighbor
+            ParallelFor.run(pool, count, k -> {
+                int v = current[k];
+                int pick = -1;
+                for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                    int e = incident[j];
+                    int w = src[e] == v ? dst[e] : src[e];
+                    if (matched[w] != 0) continue;
+                    if (pick < 0 || priority[e] > priority[pick] || (priority[e] == priority[pick] && e > pick)) pick = e;
+                }
+                best[v] = pick;
+            });
+
+            // 3) edges picked from both sides are matched; the smaller endpoint records them
+            ParallelFor.run(pool, count, k -> {
+                int v = current[k];
+                int e = best[v];
+                if (e < 0) return;
+                int w = src[e] == v ? dst[e] : src[e];
+                if (v < w && best[w] == e) {
+                    matched[v] = 1;
+                    matched[w] = 1;
+                    result[size.getAndIncrement()] = e;
+                }
+            });
+
+            // 4) keep the vertices that are unmatched and still had an unmatched neighbor
+            live = 0;
+            for (int k = 0; k < count; k++) {
+                int v = current[k];
+                if (matched[v] == 0 && best[v] >= 0) active[live++] = v;
+            }
+        }
+        return Arrays.copyOf(result, size.get());
+    }
+
+    // Every edge is held, so the state grows with the edges read
+    @Override
+    public long stateBytes() {
+        return stateBytes;
+    }
+
+    // Key buffers that just doubled plus the other per-edge arrays, and this graph's share of vertices per edge
+    @Override
+    public double bytesPerEdge() {
+        return edges == 0 ? 0 : stateBytes(2, 1, 0) + (double) stateBytes(0, 0, vertices) / edges;
+    }
+
+    // The arrays of findMatching and match at their peak: the key buffers (capacity), the distinct-ID scratch
+    // array, src/dst, both directions of the CSR and the priorities per edge; the ID table and the per-vertex
+    // arrays of match per vertex. Non-numeric names are left out.
+    private static long stateBytes(int capacity, int m, int n) {
+        return 2L * capacity * Long.BYTES + (long) m * (2 * Long.BYTES + 4 * Integer.BYTES + Long.BYTES)
+                + (long) n * (Long.BYTES + 6 * Integer.BYTES + 1);
+    }
+
+    private static long key(byte[] b, int from, int to, Map<String, Integer> nameIndex, List<String> names) {
+        long id = EdgeLines.parseId(b, from, to);
+        if (id != EdgeLines.NOT_NUMERIC) return id;
+        String name = new String(b, from, to - from, StandardCharsets.UTF_8);
+        Integer index = nameIndex.get(name);
+        if (index == null) {
+            index = names.size();
+            nameIndex.put(name, index);
+            names.add(name);
+        }
+        return Long.MIN_VALUE + index;
+    }
+
+    private static void writeId(EdgeLines.Output out, long key, List<String> names) throws IOException {
+        if (key < -999_999_999_999_999_999L) out.write(names.get((int) (key - Long.MIN_VALUE)));
+        else out.write(key);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    // The sorted distinct values of a[0..m) and b[0..m)
+    private static long[] distinct(long[] a, long[] b, int m) {
+        long[] all = new long[2 * m];
+        System.arraycopy(a, 0, all, 0, m);
+        System.arraycopy(b, 0, all, m, m);
+        Arrays.parallelSort(all);
+        int n = 0;
+        for (int i = 0; i < all.length; i++) if (n == 0 || all[i] != all[n - 1]) all[n++] = all[i];
+        return Arrays.copyOf(all, n);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java ParallelMaximalMatching <edge-list-file> <output-file> [threads] [seed]");
+            System.exit(1);
+        }
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        long start = System.currentTimeMillis();
+        try (MaximalMatcher matcher = new ParallelMaximalMatching(new ForkJoinPool(threads), seed);
+             InputStream in = new FileInputStream(args[0]); OutputStream out = new FileOutputStream(args[1])) {
+            matcher.findMatching(in, out);
+        }
+        System.out.printf("Maximal matching written to %s in %.2f seconds.%n", args[1], (System.currentTimeMillis() - start) / 1000.0);
+    }
+}
@@ -0,0 +1,119 @@
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// One stream over a list of files, read ahead by a background thread so that opening and reading the next
+// chunk (and the next file) overlaps with whatever consumes the current one. A newline is inserted after a
+// file that does not end with one, so line-oriented readers never see two files' lines run together.
+public class PartFilesInputStream extends InputStream {
+    private static final int CHUNK_SIZE = 1 << 20;
+    // Chunks read ahead of the consumer
+    private static final int DEPTH = 4;
+    private static final byte[] END = new byte[0];
+    // How often a reader waiting on a full queue checks whether the stream was closed
+    private static final long POLL_MILLIS = 100;
+
+    private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(DEPTH);
+    private final Thread reader;
+    private volatile Throwable failure;
+    private volatile boolean closed;
+    private byte[] chunk = new byte[0];
+    private int pos;
+    private boolean done;
+
+    public PartFilesInputStream(FileSystem fs, List<Path> files) {
+        reader = new Thread(() -> readAll(fs, files), "part-files-prefetch");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private void readAll(FileSystem fs, List<Path> files) {
+        try {
+            for (Path file : files) {
+                byte last = '\n';
+                try (InputStream in = fs.open(file)) {
+                    while (true) {
+                        byte[] buf = new byte[CHUNK_SIZE];
+                        int size = 0, n;
+                        while (size < buf.length && (n = in.read(buf, size, buf.length - size)) > 0) size += n;
+                        if (size == 0) break;
+                        last = buf[size - 1];
+                        if (!publish(size == buf.length ? buf : Arrays.copyOf(buf, size))) return;
+                    }
+                }
+                if (last != '\n' && !publish(new byte[]{'\n'})) return;
+            }
+        } catch (InterruptedException e) {
+            // Closed by the consumer
+        } catch (Throwable t) {
+            if (!closed) failure = t;
+        } finally {
+            // Whatever stopped the reader, a waiting consumer must see the end; nobody waits after close()
+            try {
+                publish(END);
+            } catch (InterruptedException e) {
+                // Closed by the consumer
+            }
+        }
+    }
+
+    // Queues a chunk for the consumer, waiting while the queue is full; false, without queueing it, once
+    // the stream is closed, so the reader never blocks on a consumer that is gone
+    private boolean publish(byte[] c) throws InterruptedException {
+        while (!closed) {
+            if (chunks.offer(c, POLL_MILLIS, TimeUnit.MILLISECONDS)) return true;
+        }
+        return false;
+    }
+
+    // Makes the next chunk current; false at the end of the last file
+    private boolean advance() throws IOException {
+        while (!done && pos == chunk.length) {
+            try {
+                chunk = chunks.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the next chunk");
+            }
+            pos = 0;
+            if (chunk == END) {
+                done = true;
+                if (failure instanceof IOException) throw (IOException) failure;
+                if (failure != null) throw new IOException("Reading the part files failed", failure);
+            }
+        }
+        return !done;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return advance() ? chunk[pos++] & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if (!advance()) return -1;
+        int n = Math.min(len, chunk.length - pos);
+        System.arraycopy(chunk, pos, b, off, n);
+        pos += n;
+        return n;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        done = true;
+        reader.interrupt();
+        // Drop the chunks read ahead; a reader stuck in a read that ignores the interrupt stops at its next publish
+        chunks.clear();
+    }
+}
@@ -0,0 +1,46 @@
+import org.apache.hadoop.conf.Configuration;
+
+// Sizes the in-memory steps of MaximalMatchingDriver from a heap budget instead of a hand-picked edge count.
+// After each in-memory step the matcher reports what its own state cost (MaximalMatcher.bytesPerEdge: the
+// matched-vertex set of the sequential matcher, the edge arrays of the parallel one), and the next sampling
+// probability is picked so that the sample fills FILL of the budget.
+public class SampleBudget {
+    // Heap bytes the in-memory step may use; defaults to a quarter of the driver's max heap
+    public static final String BUDGET = "mm.memory.budget";
+    // Share of the budget a sample aims for, leaving room for the variance of the sample size
+    static final double FILL = 0.8;
+    // Cost assumed before anything was measured, and the least a measurement may report
+    static final double DEFAULT_BYTES_PER_EDGE = 128, MIN_BYTES_PER_EDGE = 16;
+    // Smaller steps are too noisy to measure
+    static final long MIN_MEASURED_EDGES = 1000;
+
+    private final long budget;
+    private final long edgeLimit;
+    private double bytesPerEdge = DEFAULT_BYTES_PER_EDGE;
+
+    // edgeLimit additionally caps the edges held in memory (the mem_thresh argument), or <= 0 for none
+    public SampleBudget(Configuration conf, long edgeLimit) {
+        this.budget = conf.getLong(BUDGET, Runtime.getRuntime().maxMemory() / 4);
+        this.edgeLimit = edgeLimit > 0 ? edgeLimit : Long.MAX_VALUE;
+    }
+
+    // Edges the in-memory step can hold
+    public long capacity() {
+        return Math.min(edgeLimit, (long) (budget / bytesPerEdge));
+    }
+
+    // Sampling probability that fills FILL of the capacity out of the given edges
+    public double probability(long edges) {
+        return edges <= 0 ? 1.0 : Math.min(1.0, FILL * capacity() / edges);
+    }
+
+    public double bytesPerEdge() {
+        return bytesPerEdge;
+    }
+
+    // Call after an in-memory step of matcher over the given number of edges; returns its state in bytes
+    public long endStep(long edges, MaximalMatcher matcher) {
+        if (edges >= MIN_MEASURED_EDGES) bytesPerEdge = Math.max(MIN_BYTES_PER_EDGE, matcher.bytesPerEdge());
+        return matcher.stateBytes();
+    }
+}
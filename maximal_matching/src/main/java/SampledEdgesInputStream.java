@@ -0,0 +1,73 @@
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.SequenceFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+// The VertexPairWritable records of a sampling job's SequenceFiles as "u,v" lines, decoded a batch at a time
+// while the matcher reads, one part file after another. Only the current batch is held in memory.
+public class SampledEdgesInputStream extends InputStream {
+    private static final int BATCH_SIZE = 1 << 16;
+
+    private final Configuration conf;
+    private final Iterator<Path> files;
+    private final VertexPairWritable edge = new VertexPairWritable();
+    private SequenceFile.Reader reader;
+    private byte[] batch = new byte[BATCH_SIZE];
+    private int pos, limit;
+
+    public SampledEdgesInputStream(Configuration conf, List<Path> files) {
+        this.conf = conf;
+        this.files = files.iterator();
+    }
+
+    // Decodes the next batch of lines; false after the last record of the last file
+    private boolean advance() throws IOException {
+        pos = 0;
+        limit = 0;
+        while (limit < BATCH_SIZE) {
+            if (reader == null) {
+                if (!files.hasNext()) break;
+                reader = new SequenceFile.Reader(conf, SequenceFile.Reader.file(files.next()));
+            }
+            if (!reader.next(edge)) {
+                reader.close();
+                reader = null;
+                continue;
+            }
+            byte[] line = edge.toString().getBytes(StandardCharsets.UTF_8);
+            if (limit + line.length + 1 > batch.length) batch = Arrays.copyOf(batch, Math.max(2 * batch.length, limit + line.length + 1));
+            System.arraycopy(line, 0, batch, limit, line.length);
+            limit += line.length;
+            batch[limit++] = '\n';
+        }
+        return limit > 0;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (pos == limit && !advance()) return -1;
+        return batch[pos++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if (pos == limit && !advance()) return -1;
+        int n = Math.min(len, limit - pos);
+        System.arraycopy(batch, pos, b, off, n);
+        pos += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) reader.close();
+        reader = null;
+    }
+}
@@ -1,26 +1,33 @@
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.io.LongWritable;
+import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Counter;
 import org.apache.hadoop.mapreduce.Mapper;
 
 import java.io.IOException;
-import java.util.Random;
 
-// Mapper for sampling edges (with randomness)
-public class SamplingMapper extends Mapper<LongWritable, Text, Text, Text> {
+// Map-only sampling: writes the proposed edges and drops the rest.
+// Whether an edge is proposed is a hash of (seed, iteration, edge), so a run repeats exactly for the same
+// -Dmm.seed and input, no matter how the input is split into tasks.
+public class SamplingMapper extends Mapper<LongWritable, Text, VertexPairWritable, NullWritable> {
+    public static final String SEED = "mm.seed";
+    // Set by the driver for every iteration (see SampleBudget)
+    public static final String PROBABILITY = "sampling_probability";
 
     private double samplingProbability;
-    private Random random;
+    private long seed;
+    private int iter;
+    private VertexPairWritable edgeOutput = new VertexPairWritable();
+    private Counter sampledEdges;
 
     @Override
     protected void setup(Context context) {
         Configuration conf = context.getConfiguration();
-        long currentEdgeSetSize = conf.getLong("current_edges_count", -1);
-        long mem_thresh = conf.getLong("mem_thresh", -1);
-
-        // Calculate sampling probability based on current edge set size and threshold (Lattanzi et al., 2011).
-        samplingProbability = (double) mem_thresh / (10.0 * currentEdgeSetSize);
-        random = new Random();
+        samplingProbability = conf.getDouble(PROBABILITY, 0);
+        seed = conf.getLong(SEED, 0);
+        iter = conf.getInt("current_iter", 1);
+        sampledEdges = context.getCounter("GraphStats", "SampledEdges");
     }
 
     @Override
@@ -29,26 +36,25 @@ public class SamplingMapper extends Mapper<LongWritable, Text, Text, Text> {
         String[] vertices = line.split("\\s+|,");
 
         if (vertices.length == 2) {
-            String u = vertices[0];
-            String v = vertices[1];
-
-            String edgeString;
-            // To ensure same edge representation
-            if (u.compareTo(v) < 0) {
-                edgeString = u + "," + v;
-            } else {
-                edgeString = v + "," + u;
+            // To ensure same edge representation (and the same decision for both directions)
+            String u = vertices[0], v = vertices[1];
+            if (u.compareTo(v) > 0) {
+                u = vertices[1];
+                v = vertices[0];
             }
 
-            // Randomly decide to sample/propose this edge
-            if (random.nextDouble() < samplingProbability) {
-                // Emit both endpoints if ege was proposed.
-                context.write(new Text(u), new Text(v + ",proposed," + edgeString));
-                context.write(new Text(v), new Text(u + ",proposed," + edgeString));
-            } else {
-                context.write(new Text(u), new Text(v + ",not_proposed," + edgeString));
-                context.write(new Text(v), new Text(u + ",not_proposed," + edgeString));
+            // Decide to sample/propose this edge
+            if (isProposed(seed, iter, u, v, samplingProbability)) {
+                edgeOutput.set(u, v);
+                context.write(edgeOutput, NullWritable.get());
+                sampledEdges.increment(1);
             }
         }
     }
-}
\ No newline at end of file
+
+    // Whether the edge u,v (in canonical order) is proposed in the given iteration
+    static boolean isProposed(long seed, int iter, String u, String v, double probability) {
+        long edge = SplitMix64.mix(SplitMix64.hash(u) * 31 + SplitMix64.hash(v));
+        return SplitMix64.unit(SplitMix64.hash(seed, iter, edge)) < probability;
+    }
+}
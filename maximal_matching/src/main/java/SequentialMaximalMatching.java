@@ -1,37 +1,143 @@
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
-// This class implements a sequential greedy maximal matching algorithm used in sampling and post-filtering phases
-public class SequentialMaximalMatching {
-
-    // Finds a greedy maximal matching from an InputStream and writes it to an OutputStream.
-    public void findMatching(InputStream inputStream, OutputStream outputStream) throws IOException {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
-        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outputStream));
-        Set<String> matchedVertices = new HashSet<>();
-
-        String line;
-        while ((line = reader.readLine()) != null) {
-            String[] vertices = line.trim().split(",");
-            if (vertices.length == 2) {
-                String u = vertices[0].trim();
-                String v = vertices[1].trim();
-
-                // Check if none of the endponts is already in the matching
-                if (!matchedVertices.contains(u) && !matchedVertices.contains(v)) {
-                    writer.write(u + "," + v);
-                    writer.newLine();
-                    matchedVertices.add(u);
-                    matchedVertices.add(v);
-                }
+// This class implements a sequential greedy maximal matching algorithm used in sampling and post-filtering phases.
+// The edge lines are scanned as bytes (EdgeLines); integer IDs are parsed in place and tracked in a primitive
+// hash set, any other ID falls back to a HashSet<String>. Self-loops are never matched, as in ParallelMaximalMatching.
+public class SequentialMaximalMatching implements MaximalMatcher {
+
+    // Rough heap cost of a non-numeric ID in matchedNames besides its chars: String, array and hash entry
+    private static final long NAME_OVERHEAD = 80;
+
+    private final LongSet matchedIds = new LongSet();
+    private final Set<String> matchedNames = new HashSet<>();
+    private long nameBytes;
+
+    // Scans the edges in input order and keeps every edge whose endpoints are both still unmatched
+    @Override
+    public void findMatching(InputStream inputStream, OutputStream outputStream, OutputStream matchedVerticesStream) throws IOException {
+        matchedIds.clear();
+        matchedNames.clear();
+        nameBytes = 0;
+        EdgeLines.Output writer = new EdgeLines.Output(outputStream);
+        EdgeLines.Output vertexWriter = matchedVerticesStream == null ? null : new EdgeLines.Output(matchedVerticesStream);
+
+        EdgeLines.scan(inputStream, (b, u0, u1, v0, v1) -> {
+            long u = EdgeLines.parseId(b, u0, u1), v = EdgeLines.parseId(b, v0, v1);
+            String uName = u == NOT_NUMERIC ? new String(b, u0, u1 - u0, StandardCharsets.UTF_8) : null;
+            String vName = v == NOT_NUMERIC ? new String(b, v0, v1 - v0, StandardCharsets.UTF_8) : null;
+            // A self-loop can't be in a matching
+            if (u == NOT_NUMERIC ? uName.equals(vName) : u == v) return;
+            // Check if none of the endponts is already in the matching
+            if (isMatched(u, uName) || isMatched(v, vName)) return;
+
+            markMatched(u, uName);
+            markMatched(v, vName);
+            writer.write(b, u0, u1);
+            writer.write((byte) ',');
+            writer.write(b, v0, v1);
+            writer.write((byte) '\n');
+            if (vertexWriter != null) {
+                vertexWriter.write(b, u0, u1);
+                vertexWriter.write((byte) '\n');
+                vertexWriter.write(b, v0, v1);
+                vertexWriter.write((byte) '\n');
             }
+        });
+
+        // The caller closes the streams, so hand over everything buffered
+        writer.flush();
+        if (vertexWriter != null) vertexWriter.flush();
+    }
+
+    // The edges are streamed, so the state is just the matched vertices
+    @Override
+    public long stateBytes() {
+        return matchedIds.capacity() * (long) Long.BYTES + nameBytes;
+    }
+
+    // An edge matches at most two vertices
+    @Override
+    public double bytesPerEdge() {
+        long vertices = matchedIds.size() + matchedNames.size();
+        return vertices == 0 ? 0 : 2.0 * stateBytes() / vertices;
+    }
+
+    private boolean isMatched(long id, String name) {
+        return name == null ? matchedIds.contains(id) : matchedNames.contains(name);
+    }
+
+    private void markMatched(long id, String name) {
+        if (name == null) matchedIds.add(id);
+        else if (matchedNames.add(name)) nameBytes += NAME_OVERHEAD + name.length();
+    }
+
+    private static final long NOT_NUMERIC = EdgeLines.NOT_NUMERIC;
+
+    // Open-addressing set of longs with linear probing; NOT_NUMERIC marks an empty slot and is never added
+    static final class LongSet {
+        private long[] slots = newSlots(1 << 10);
+        private int size;
+
+        boolean contains(long id) {
+            int mask = slots.length - 1;
+            for (int i = slot(id, mask); ; i = (i + 1) & mask) {
+                if (slots[i] == id) return true;
+                if (slots[i] == NOT_NUMERIC) return false;
+            }
+        }
+
+        void add(long id) {
+            int mask = slots.length - 1;
+            int i = slot(id, mask);
+            while (slots[i] != NOT_NUMERIC) {
+                if (slots[i] == id) return;
+                i = (i + 1) & mask;
+            }
+            slots[i] = id;
+            // Keep the load factor at or below 1/2
+            if (++size * 2 > slots.length) rehash();
+        }
+
+        int size() {
+            return size;
+        }
+
+        int capacity() {
+            return slots.length;
+        }
+
+        void clear() {
+            Arrays.fill(slots, NOT_NUMERIC);
+            size = 0;
+        }
+
+        private void rehash() {
+            long[] old = slots;
+            slots = newSlots(old.length * 2);
+            int mask = slots.length - 1;
+            for (long id : old) {
+                if (id == NOT_NUMERIC) continue;
+                int i = slot(id, mask);
+                while (slots[i] != NOT_NUMERIC) i = (i + 1) & mask;
+                slots[i] = id;
+            }
+        }
+
+        private static long[] newSlots(int n) {
+            long[] slots = new long[n];
+            Arrays.fill(slots, NOT_NUMERIC);
+            return slots;
+        }
+
+        // Fibonacci hashing, so sequential IDs spread over the table
+        private static int slot(long id, int mask) {
+            return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
         }
     }
-}
\ No newline at end of file
+}
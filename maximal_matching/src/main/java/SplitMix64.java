@@ -0,0 +1,32 @@
+// SplitMix64 hashing for the seeded random choices of the matching code. A choice is a pure function of
+// the seed and of what it is about (iteration, edge), so runs repeat exactly and tasks need no shared state.
+public final class SplitMix64 {
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    private SplitMix64() {
+    }
+
+    // The SplitMix64 finalizer
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Hash of the sequence (seed, a, b)
+    public static long hash(long seed, long a, long b) {
+        return mix(mix(mix(seed + GAMMA) + a * GAMMA) + b * GAMMA);
+    }
+
+    // 64-bit hash of a string's characters
+    public static long hash(String s) {
+        long h = s.length();
+        for (int i = 0; i < s.length(); i++) h = mix(h + s.charAt(i) * GAMMA);
+        return h;
+    }
+
+    // Uniform double in [0, 1) from a hash
+    public static double unit(long h) {
+        return (h >>> 11) * 0x1.0p-53;
+    }
+}
@@ -0,0 +1,52 @@
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// An edge as two vertex IDs. IDs that are canonical integers (see MatchedVertexSet.isCanonicalLong) are
+// written as variable-length longs; any other ID is written as a string.
+public class VertexPairWritable implements Writable {
+    private final String[] ids = new String[2];
+
+    public void set(String u, String v) {
+        ids[0] = u;
+        ids[1] = v;
+    }
+
+    public String u() {
+        return ids[0];
+    }
+
+    public String v() {
+        return ids[1];
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        for (String id : ids) {
+            if (MatchedVertexSet.isCanonicalLong(id)) {
+                out.writeBoolean(true);
+                WritableUtils.writeVLong(out, Long.parseLong(id));
+            } else {
+                out.writeBoolean(false);
+                Text.writeString(out, id);
+            }
+        }
+    }
+
+    @Override
+    public void readFields(DataInput in) throws IOException {
+        for (int i = 0; i < 2; i++) {
+            ids[i] = in.readBoolean() ? Long.toString(WritableUtils.readVLong(in)) : Text.readString(in);
+        }
+    }
+
+    // "u,v", the edge line format of the in-memory matchers
+    @Override
+    public String toString() {
+        return ids[0] + "," + ids[1];
+    }
+}
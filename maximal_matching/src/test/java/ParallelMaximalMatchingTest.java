@@ -0,0 +1,78 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// ParallelMaximalMatching must give a valid maximal matching, like SequentialMaximalMatching does on the same
+// edges (duplicates and self-loops included); the two only differ in which maximal matching they find
+class ParallelMaximalMatchingTest {
+
+    private static String randomEdges(long seed, int n, int m) {
+        Random rnd = new Random(seed);
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < m; i++) {
+            int u = rnd.nextInt(n), v = i % 40 == 0 ? u : rnd.nextInt(n);
+            lines.append(u).append(',').append(v).append('\n');
+        }
+        return lines.toString();
+    }
+
+    private static String match(MaximalMatcher matcher, String edges) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        matcher.findMatching(new ByteArrayInputStream(edges.getBytes(StandardCharsets.UTF_8)), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    // Asserts that matching is a matching of edges that leaves no edge with both endpoints free; returns its size
+    private static int assertMaximal(String edges, String matching) {
+        Set<String> inputEdges = new HashSet<>();
+        for (String line : edges.split("\n")) inputEdges.add(line);
+        Set<String> matched = new HashSet<>();
+        int size = 0;
+        for (String line : matching.split("\n")) {
+            if (line.isEmpty()) continue;
+            String[] uv = line.split(",");
+            assertTrue(inputEdges.contains(line), "not an input edge: " + line);
+            assertNotEquals(uv[0], uv[1], "self-loop matched: " + line);
+            assertTrue(matched.add(uv[0]) && matched.add(uv[1]), "vertex matched twice: " + line);
+            size++;
+        }
+        for (String line : inputEdges) {
+            String[] uv = line.split(",");
+            if (uv[0].equals(uv[1])) continue;
+            assertTrue(matched.contains(uv[0]) || matched.contains(uv[1]), "edge left free: " + line);
+        }
+        return size;
+    }
+
+    @Test
+    void maximalLikeSequential() throws Exception {
+        try (MaximalMatcher parallel = new ParallelMaximalMatching(new ForkJoinPool(4), 42)) {
+            for (long seed = 0; seed < 20; seed++) {
+                String edges = randomEdges(seed, 300, 1200);
+                int sequentialSize = assertMaximal(edges, match(new SequentialMaximalMatching(), edges));
+                int parallelSize = assertMaximal(edges, match(parallel, edges));
+                // Any two maximal matchings are within a factor of two of each other
+                assertTrue(2 * parallelSize >= sequentialSize && 2 * sequentialSize >= parallelSize, "seed " + seed);
+            }
+        }
+    }
+
+    @Test
+    void sameSeedSameMatching() throws Exception {
+        String edges = randomEdges(3, 500, 3000);
+        try (MaximalMatcher a = new ParallelMaximalMatching(new ForkJoinPool(2), 7);
+             MaximalMatcher b = new ParallelMaximalMatching(new ForkJoinPool(8), 7)) {
+            assertEquals(match(a, edges), match(b, edges));
+        }
+    }
+}
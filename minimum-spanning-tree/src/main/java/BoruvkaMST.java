@@ -0,0 +1,371 @@
+import java.io.IOException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.MultipleInputs;
+import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.TextInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.MultipleOutputs;
+import org.apache.hadoop.mapreduce.lib.output.SequenceFileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.TextOutputFormat;
+
+/**
+ * Borůvka MST engine for MSTMapReduce (-Dmst.engine=boruvka). Every phase contracts each component
+ * along its lightest edge:
+ * <ol>
+ *   <li>min-edge: every component picks its lightest incident edge (with a combiner);</li>
+ *   <li>break cycles: two components that picked each other keep the smaller ID as root;</li>
+ *   <li>pointer jumping: component pointers are doubled until each points at its root;</li>
+ *   <li>relabel: two joins rename both endpoints of every edge to their new roots and drop
+ *       the edges that became internal. The picked edges of non-roots are this phase's MST edges.</li>
+ * </ol>
+ * Each phase at least halves the number of components, so there are at most log2(n) phases.
+ * No step needs a single reducer or holds more than one record per key in memory.
+ * The MST is written as "u<TAB>v w" text under outputDir/final, one set of part files per phase.
+ */
+public class BoruvkaMST {
+    public static final String COUNTER_GROUP = "Boruvka";
+    public static final String REMAINING_EDGES = "RemainingEdges";
+    public static final String POINTERS_CHANGED = "PointersChanged";
+    public static final String MST_EDGES = "MstEdges";
+    // Which endpoint a relabel join renames: 0 for cu, 1 for cv
+    static final String SIDE = "mst.boruvka.side";
+    static final String MST_OUTPUT = "mst";
+
+    // Text edge list to component edges; each vertex starts as its own component
+    public static class LoadMapper extends Mapper<Object, Text, NullWritable, ComponentEdgeWritable> {
+        private final WeightedEdgeWritable parsed = new WeightedEdgeWritable();
+        private final ComponentEdgeWritable out = new ComponentEdgeWritable();
+
+        @Override
+        protected void map(Object key, Text value, Context context) throws IOException, InterruptedException {
+            if (value.getLength() == 0) return;
+            parsed.parse(value.toString());
+            if (parsed.u == parsed.v) return;
+            int a = Math.min(parsed.u, parsed.v), b = Math.max(parsed.u, parsed.v);
+            out.set(a, b, a, b, parsed.w);
+            context.write(NullWritable.get(), out);
+            context.getCounter(COUNTER_GROUP, REMAINING_EDGES).increment(1);
+        }
+    }
+
+    // 1) min-edge: offer every edge to both of its components
+    public static class MinEdgeMapper extends Mapper<NullWritable, ComponentEdgeWritable, IntWritable, ComponentEdgeWritable> {
+        private final IntWritable component = new IntWritable();
+
+        @Override
+        protected void map(NullWritable key, ComponentEdgeWritable edge, Context context) throws IOException, InterruptedException {
+            component.set(edge.cu);
+            context.write(component, edge);
+            component.set(edge.cv);
+            context.write(component, edge);
+        }
+    }
+
+    public static class MinEdgeCombiner extends Reducer<IntWritable, ComponentEdgeWritable, IntWritable, ComponentEdgeWritable> {
+        private final ComponentEdgeWritable min = new ComponentEdgeWritable();
+
+        @Override
+        protected void reduce(IntWritable key, Iterable<ComponentEdgeWritable> values, Context context) throws IOException, InterruptedException {
+            lightest(values, min);
+            context.write(key, min);
+        }
+    }
+
+    // Writes (component, component at the other end, lightest edge)
+    public static class MinEdgeReducer extends Reducer<IntWritable, ComponentEdgeWritable, NullWritable, ComponentEdgeWritable> {
+        private final ComponentEdgeWritable min = new ComponentEdgeWritable();
+
+        @Override
+        protected void reduce(IntWritable key, Iterable<ComponentEdgeWritable> values, Context context) throws IOException, InterruptedException {
+            lightest(values, min);
+            int c = key.get();
+            min.set(c, min.cu == c ? min.cv : min.cu, min.u, min.v, min.w);
+            context.write(NullWritable.get(), min);
+        }
+    }
+
+    static void lightest(Iterable<ComponentEdgeWritable> values, ComponentEdgeWritable min) {
+        boolean first = true;
+        for (ComponentEdgeWritable e : values) {
+            if (first || e.lighterThan(min)) min.set(e);
+            first = false;
+        }
+    }
+
+    // 2) break cycles: a component sees its own choice first, then the components that chose it
+    public static class CycleMapper extends Mapper<NullWritable, ComponentEdgeWritable, ComponentKey, ComponentEdgeWritable> {
+        private final ComponentKey out = new ComponentKey();
+
+        @Override
+        protected void map(NullWritable key, ComponentEdgeWritable choice, Context context) throws IOException, InterruptedException {
+            out.set(choice.cu, ComponentKey.OWN);
+            context.write(out, choice);
+            out.set(choice.cv, ComponentKey.JOINED);
+            context.write(out, choice);
+        }
+    }
+
+    public static class CycleReducer extends Reducer<ComponentKey, ComponentEdgeWritable, NullWritable, ComponentEdgeWritable> {
+        private final ComponentEdgeWritable own = new ComponentEdgeWritable();
+
+        @Override
+        protected void reduce(ComponentKey key, Iterable<ComponentEdgeWritable> values, Context context) throws IOException, InterruptedException {
+            boolean hasOwn = false;
+            for (ComponentEdgeWritable e : values) {
+                if (key.tag == ComponentKey.OWN) {
+                    own.set(e);
+                    hasOwn = true;
+                } else if (hasOwn && e.cu == own.cv && own.cu < own.cv) {
+                    // Mutual choice: both picked the same edge, and the smaller ID becomes the root
+                    own.cv = own.cu;
+                }
+            }
+            if (hasOwn) context.write(NullWritable.get(), own);
+        }
+    }
+
+    // 3) pointer jumping: every component asks its parent for the parent's parent
+    public static class JumpMapper extends Mapper<NullWritable, ComponentEdgeWritable, ComponentKey, ComponentEdgeWritable> {
+        private final ComponentKey out = new ComponentKey();
+
+        @Override
+        protected void map(NullWritable key, ComponentEdgeWritable label, Context context) throws IOException, InterruptedException {
+            out.set(label.cu, ComponentKey.OWN);
+            context.write(out, label);
+            if (label.cv != label.cu) {
+                out.set(label.cv, ComponentKey.JOINED);
+                context.write(out, label);
+            }
+        }
+    }
+
+    // Roots write themselves; every other component is written once, by its parent
+    public static class JumpReducer extends Reducer<ComponentKey, ComponentEdgeWritable, NullWritable, ComponentEdgeWritable> {
+        private final ComponentEdgeWritable own = new ComponentEdgeWritable();
+
+        @Override
+        protected void reduce(ComponentKey key, Iterable<ComponentEdgeWritable> values, Context context) throws IOException, InterruptedException {
+            boolean hasOwn = false;
+            for (ComponentEdgeWritable e : values) {
+                if (key.tag == ComponentKey.OWN) {
+                    own.set(e);
+                    hasOwn = true;
+                    if (own.cv == own.cu) context.write(NullWritable.get(), own);
+                } else if (hasOwn) {
+                    if (own.cv != own.cu) context.getCounter(COUNTER_GROUP, POINTERS_CHANGED).increment(1);
+                    e.cv = own.cv;
+                    context.write(NullWritable.get(), e);
+                }
+            }
+        }
+    }
+
+    // 4) relabel: labels (component, root, picked edge) join the edges on one endpoint
+    public static class LabelJoinMapper extends Mapper<NullWritable, ComponentEdgeWritable, ComponentKey, ComponentEdgeWritable> {
+        private final ComponentKey out = new ComponentKey();
+
+        @Override
+        protected void map(NullWritable key, ComponentEdgeWritable label, Context context) throws IOException, InterruptedException {
+            out.set(label.cu, ComponentKey.OWN);
+            context.write(out, label);
+        }
+    }
+
+    public static class EdgeJoinMapper extends Mapper<NullWritable, ComponentEdgeWritable, ComponentKey, ComponentEdgeWritable> {
+        private final ComponentKey out = new ComponentKey();
+        private int side;
+
+        @Override
+        protected void setup(Context context) {
+            side = context.getConfiguration().getInt(SIDE, 0);
+        }
+
+        @Override
+        protected void map(NullWritable key, ComponentEdgeWritable edge, Context context) throws IOException, InterruptedException {
+            out.set(side == 0 ? edge.cu : edge.cv, ComponentKey.JOINED);
+            context.write(out, edge);
+        }
+    }
+
+    // On side 0 also writes the picked edge of every non-root, which is an MST edge
+    public static class RelabelReducer extends Reducer<ComponentKey, ComponentEdgeWritable, NullWritable, ComponentEdgeWritable> {
+        private MultipleOutputs<NullWritable, ComponentEdgeWritable> mst;
+        private final Text uOut = new Text(), vWOut = new Text();
+        private int side;
+
+        @Override
+        protected void setup(Context context) {
+            side = context.getConfiguration().getInt(SIDE, 0);
+            if (side == 0) mst = new MultipleOutputs<>(context);
+        }
+
+        @Override
+        protected void reduce(ComponentKey key, Iterable<ComponentEdgeWritable> values, Context context) throws IOException, InterruptedException {
+            int root = key.id;
+            for (ComponentEdgeWritable e : values) {
+                if (key.tag == ComponentKey.OWN) {
+                    root = e.cv;
+                    if (side == 0 && e.cu != e.cv) {
+                        uOut.set(String.valueOf(e.u));
+                        vWOut.set(e.v + " " + e.w);
+                        mst.write(MST_OUTPUT, uOut, vWOut);
+                        context.getCounter(COUNTER_GROUP, MST_EDGES).increment(1);
+                    }
+                    continue;
+                }
+                if (side == 0) {
+                    e.cu = root;
+                } else {
+                    e.cv = root;
+                    if (e.cu == e.cv) continue;
+                    context.getCounter(COUNTER_GROUP, REMAINING_EDGES).increment(1);
+                }
+                context.write(NullWritable.get(), e);
+            }
+        }
+
+        @Override
+        protected void cleanup(Context context) throws IOException, InterruptedException {
+            if (mst != null) mst.close();
+        }
+    }
+
+    // Runs phases until no edges remain or maxPhases is reached; returns whether the MST is complete
+    public static boolean run(Configuration base, String input, String baseOutput, int maxPhases, int partitions,
+                              IterationMetrics metrics) throws Exception {
+        FileSystem fs = FileSystem.get(base);
+        Path work = new Path(baseOutput, "boruvka");
+        Path finalOut = new Path(baseOutput, "final");
+        // The phases add their MST edges to final/ one by one, so an earlier run's edges would mix in
+        if (fs.exists(finalOut)) {
+            System.err.println("Output directory " + finalOut + " already exists.");
+            return false;
+        }
+        fs.mkdirs(finalOut);
+
+        // Load the text edges; self-loops never belong to an MST
+        Path edges = new Path(work, "edges0");
+        Job load = job(base, "Boruvka Load", partitions);
+        load.setMapperClass(LoadMapper.class);
+        load.setInputFormatClass(TextInputFormat.class);
+        load.setNumReduceTasks(0);
+        FileInputFormat.addInputPath(load, new Path(input));
+        FileOutputFormat.setOutputPath(load, edges);
+        long remaining = complete(load, 0, metrics, REMAINING_EDGES);
+        if (remaining < 0) return false;
+
+        for (int phase = 1; phase <= maxPhases && remaining > 0; phase++) {
+            // 1) min-edge
+            Path choices = new Path(work, "choices" + phase);
+            Job minEdge = job(base, "Boruvka Min Edge " + phase, partitions);
+            minEdge.setMapperClass(MinEdgeMapper.class);
+            minEdge.setCombinerClass(MinEdgeCombiner.class);
+            minEdge.setReducerClass(MinEdgeReducer.class);
+            minEdge.setMapOutputKeyClass(IntWritable.class);
+            FileInputFormat.addInputPath(minEdge, edges);
+            FileOutputFormat.setOutputPath(minEdge, choices);
+            if (complete(minEdge, phase, metrics, null) < 0) return false;
+
+            // 2) break cycles
+            Path labels = new Path(work, "labels" + phase + "_0");
+            Job cycles = joinJob(base, "Boruvka Break Cycles " + phase, partitions);
+            cycles.setMapperClass(CycleMapper.class);
+            cycles.setReducerClass(CycleReducer.class);
+            FileInputFormat.addInputPath(cycles, choices);
+            FileOutputFormat.setOutputPath(cycles, labels);
+            if (complete(cycles, phase, metrics, null) < 0) return false;
+            fs.delete(choices, true);
+
+            // 3) pointer jumping until every pointer is a root
+            for (int step = 1; ; step++) {
+                Path next = new Path(work, "labels" + phase + "_" + step);
+                Job jump = joinJob(base, "Boruvka Pointer Jumping " + phase + "." + step, partitions);
+                jump.setMapperClass(JumpMapper.class);
+                jump.setReducerClass(JumpReducer.class);
+                FileInputFormat.addInputPath(jump, labels);
+                FileOutputFormat.setOutputPath(jump, next);
+                long changed = complete(jump, phase, metrics, POINTERS_CHANGED);
+                if (changed < 0) return false;
+                fs.delete(labels, true);
+                labels = next;
+                if (changed == 0) break;
+            }
+
+            // 4) relabel cu (and collect this phase's MST edges), then cv
+            Path half = new Path(work, "half" + phase);
+            if (relabel(base, "Boruvka Relabel " + phase + ".u", partitions, 0, labels, edges, half, phase, metrics) < 0) return false;
+            fs.delete(edges, true);
+            for (FileStatus part : fs.listStatus(half, p -> p.getName().startsWith(MST_OUTPUT + "-"))) {
+                fs.rename(part.getPath(), new Path(finalOut, "part-phase" + phase + "-" + part.getPath().getName().substring(MST_OUTPUT.length() + 1)));
+            }
+            Path relabeled = new Path(work, "edges" + phase);
+            remaining = relabel(base, "Boruvka Relabel " + phase + ".v", partitions, 1, labels, half, relabeled, phase, metrics);
+            if (remaining < 0) return false;
+            fs.delete(half, true);
+            fs.delete(labels, true);
+            edges = relabeled;
+            System.out.println("Boruvka phase " + phase + ": edges=" + remaining);
+        }
+
+        fs.delete(work, true);
+        if (remaining > 0) {
+            System.err.println("Reached maxRounds (" + maxPhases + ") with " + remaining + " edges left between components.");
+            return false;
+        }
+        return true;
+    }
+
+    private static long relabel(Configuration base, String name, int partitions, int side, Path labels, Path edges, Path out,
+                                int phase, IterationMetrics metrics) throws Exception {
+        Job job = joinJob(base, name, partitions);
+        job.getConfiguration().setInt(SIDE, side);
+        job.setReducerClass(RelabelReducer.class);
+        MultipleInputs.addInputPath(job, labels, SequenceFileInputFormat.class, LabelJoinMapper.class);
+        MultipleInputs.addInputPath(job, edges, SequenceFileInputFormat.class, EdgeJoinMapper.class);
+        if (side == 0) MultipleOutputs.addNamedOutput(job, MST_OUTPUT, TextOutputFormat.class, Text.class, Text.class);
+        FileOutputFormat.setOutputPath(job, out);
+        return complete(job, phase, metrics, side == 0 ? MST_EDGES : REMAINING_EDGES);
+    }
+
+    private static Job job(Configuration base, String name, int partitions) throws IOException {
+        Job job = Job.getInstance(new Configuration(base), name);
+        job.setJarByClass(BoruvkaMST.class);
+        job.setInputFormatClass(SequenceFileInputFormat.class);
+        job.setOutputFormatClass(SequenceFileOutputFormat.class);
+        job.setMapOutputValueClass(ComponentEdgeWritable.class);
+        job.setOutputKeyClass(NullWritable.class);
+        job.setOutputValueClass(ComponentEdgeWritable.class);
+        job.setNumReduceTasks(partitions);
+        return job;
+    }
+
+    private static Job joinJob(Configuration base, String name, int partitions) throws IOException {
+        Job job = job(base, name, partitions);
+        job.setMapOutputKeyClass(ComponentKey.class);
+        job.setPartitionerClass(ComponentKey.IdPartitioner.class);
+        job.setGroupingComparatorClass(ComponentKey.IdGrouping.class);
+        return job;
+    }
+
+    // Waits for the job and records it; returns the given Boruvka counter (0 if none), or -1 if the job failed
+    private static long complete(Job job, int phase, IterationMetrics metrics, String counter) throws Exception {
+        long start = System.currentTimeMillis();
+        if (!job.waitForCompletion(true)) {
+            System.err.println(job.getJobName() + " failed.");
+            return -1;
+        }
+        long value = counter == null ? 0 : job.getCounters().findCounter(COUNTER_GROUP, counter).getValue();
+        metrics.recordJob(phase, job, System.currentTimeMillis() - start, value);
+        return value;
+    }
+}
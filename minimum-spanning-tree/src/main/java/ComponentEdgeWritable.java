@@ -0,0 +1,59 @@
+import org.apache.hadoop.io.Writable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The one record type of the Borůvka engine: an original edge (u, v, w) together with the components
+ * (cu, cv) its endpoints currently belong to. Component choices and labels reuse it as
+ * (component, pointer, chosen edge).
+ */
+public class ComponentEdgeWritable implements Writable {
+    public int cu, cv;
+    public int u, v;
+    public double w;
+
+    public void set(int cu, int cv, int u, int v, double w) {
+        this.cu = cu;
+        this.cv = cv;
+        this.u = u;
+        this.v = v;
+        this.w = w;
+    }
+
+    public void set(ComponentEdgeWritable o) {
+        set(o.cu, o.cv, o.u, o.v, o.w);
+    }
+
+    // Strict total order on the original edges (weight, then endpoints), which keeps Borůvka free of cycles on ties
+    public boolean lighterThan(ComponentEdgeWritable o) {
+        int c = Double.compare(w, o.w);
+        if (c != 0) return c < 0;
+        if (u != o.u) return u < o.u;
+        return v < o.v;
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(cu);
+        out.writeInt(cv);
+        out.writeInt(u);
+        out.writeInt(v);
+        out.writeDouble(w);
+    }
+
+    @Override
+    public void readFields(DataInput in) throws IOException {
+        cu = in.readInt();
+        cv = in.readInt();
+        u = in.readInt();
+        v = in.readInt();
+        w = in.readDouble();
+    }
+
+    @Override
+    public String toString() {
+        return cu + "\t" + cv + "\t" + u + "\t" + v + " " + w;
+    }
+}
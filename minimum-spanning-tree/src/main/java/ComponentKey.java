@@ -0,0 +1,88 @@
+import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.io.WritableComparator;
+import org.apache.hadoop.mapreduce.Partitioner;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Reduce-side join key of the Borůvka engine: a component ID plus a tag. Partitioning and grouping
+ * only look at the ID, and the sort puts tag 0 (the component's own record) ahead of tag 1 (the
+ * records joined to it), so reducers stream the joined side without buffering it.
+ */
+public class ComponentKey implements WritableComparable<ComponentKey> {
+    public static final byte OWN = 0;
+    public static final byte JOINED = 1;
+
+    public int id;
+    public byte tag;
+
+    public void set(int id, byte tag) {
+        this.id = id;
+        this.tag = tag;
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(id);
+        out.writeByte(tag);
+    }
+
+    @Override
+    public void readFields(DataInput in) throws IOException {
+        id = in.readInt();
+        tag = in.readByte();
+    }
+
+    @Override
+    public int compareTo(ComponentKey o) {
+        int c = Integer.compare(id, o.id);
+        return c != 0 ? c : Byte.compare(tag, o.tag);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ComponentKey && ((ComponentKey) o).id == id && ((ComponentKey) o).tag == tag;
+    }
+
+    @Override
+    public int hashCode() {
+        return id * 31 + tag;
+    }
+
+    public static class Comparator extends WritableComparator {
+        public Comparator() {
+            super(ComponentKey.class);
+        }
+
+        @Override
+        public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+            int c = Integer.compare(readInt(b1, s1), readInt(b2, s2));
+            return c != 0 ? c : Byte.compare(b1[s1 + 4], b2[s2 + 4]);
+        }
+    }
+
+    // Groups all tags of one component into a single reduce call
+    public static class IdGrouping extends WritableComparator {
+        public IdGrouping() {
+            super(ComponentKey.class);
+        }
+
+        @Override
+        public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+            return Integer.compare(readInt(b1, s1), readInt(b2, s2));
+        }
+    }
+
+    public static class IdPartitioner<V> extends Partitioner<ComponentKey, V> {
+        @Override
+        public int getPartition(ComponentKey key, V value, int numPartitions) {
+            return Math.floorMod(key.id * 0x9E3779B9, numPartitions);
+        }
+    }
+
+    static {
+        WritableComparator.define(ComponentKey.class, new Comparator());
+    }
+}
@@ -0,0 +1,161 @@
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.SequenceFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Decides which local-MST bucket an edge goes to in a filtering round, chosen by mst.partitioner:
+ * <ul>
+ *   <li>hash (default): a hash of the whole edge, re-seeded every round.</li>
+ *   <li>vertex: vertices are hashed into k groups and an edge goes to the bucket of its unordered group
+ *       pair: the k(k-1)/2 cross buckets hold the edges between two groups, the k diagonal buckets the
+ *       edges inside one; k(k+1)/2 buckets fit in mst.partitions. Unlike Karloff et al. (2010), intra-group
+ *       edges are not copied to every pair bucket, so no bucket is a full induced subgraph, but a vertex
+ *       still sees at most k buckets and a dense round still leaves about k edges per vertex, against
+ *       roughly one edge per vertex per bucket for hash. The grouping changes every round.</li>
+ *   <li>range: like vertex, with groups of mst.range.block consecutive IDs, for inputs whose IDs
+ *       follow the graph's locality (crawl or BFS order). Blocks are hashed into groups, and both the
+ *       block boundaries (by half a block) and the hashing change every round.</li>
+ *   <li>weight: mst.partitions weight bands with cut points sampled from the input; band i only
+ *       holds edges lighter than band i+1, and adjacent bands are merged pairwise every round.</li>
+ * </ul>
+ * Any of them is safe: an edge a local MST leaves out is the heaviest edge of some cycle.
+ */
+public abstract class EdgePartitioner {
+    public static final String PARTITIONER = "mst.partitioner";
+    public static final String RANGE_BLOCK = "mst.range.block";
+    // Set by the driver for the weight partitioner: sorted cut points, comma-separated
+    public static final String WEIGHT_CUTS = "mst.weight.cuts";
+    // How many weights the driver samples to place the cuts
+    public static final String WEIGHT_SAMPLES = "mst.weight.samples";
+
+    protected int buckets;
+    protected int round;
+
+    public abstract int bucket(int u, int v, double w);
+
+    public static EdgePartitioner of(Configuration conf) {
+        String name = conf.get(PARTITIONER, "hash").trim().toLowerCase(Locale.ROOT);
+        EdgePartitioner p;
+        switch (name) {
+            case "hash": p = new Hash(); break;
+            case "vertex": p = new VertexPair(); break;
+            case "range": p = new Range(conf.getInt(RANGE_BLOCK, 1024)); break;
+            case "weight": p = new WeightBands(conf.getStrings(WEIGHT_CUTS)); break;
+            default: throw new IllegalArgumentException("Unknown " + PARTITIONER + ": " + name + " (expected hash, vertex, range or weight)");
+        }
+        p.buckets = conf.getInt("mst.partitions", 10);
+        p.round = conf.getInt(MSTMapReduce.ROUND, 1);
+        return p;
+    }
+
+    static int mix(int x, int seed) {
+        int h = x * 0x9E3779B9 + seed * 0x85EBCA6B;
+        return h ^ (h >>> 16);
+    }
+
+    static class Hash extends EdgePartitioner {
+        @Override
+        public int bucket(int u, int v, double w) {
+            return Math.floorMod(mix((31 * u + v) * 31 + Double.hashCode(w), round), buckets);
+        }
+    }
+
+    static class VertexPair extends EdgePartitioner {
+        // Largest k with k(k+1)/2 <= buckets
+        int groups() {
+            return Math.max(1, (int) ((Math.sqrt(8.0 * buckets + 1) - 1) / 2));
+        }
+
+        int group(int vertex, int k) {
+            return Math.floorMod(mix(vertex, round), k);
+        }
+
+        @Override
+        public int bucket(int u, int v, double w) {
+            int k = groups();
+            int a = group(u, k), b = group(v, k);
+            int lo = Math.min(a, b), hi = Math.max(a, b);
+            return hi * (hi + 1) / 2 + lo;
+        }
+    }
+
+    static class Range extends VertexPair {
+        private final int block;
+
+        Range(int block) {
+            this.block = Math.max(1, block);
+        }
+
+        @Override
+        int group(int vertex, int k) {
+            long shifted = (long) vertex + (long) (round - 1) * (block / 2);
+            return Math.floorMod(mix((int) Math.floorDiv(shifted, block), round), k);
+        }
+    }
+
+    static class WeightBands extends EdgePartitioner {
+        private final double[] cuts;
+
+        WeightBands(String[] cuts) {
+            if (cuts == null) throw new IllegalStateException(WEIGHT_CUTS + " is not set; MSTMapReduce samples it before round 1");
+            this.cuts = new double[cuts.length];
+            for (int i = 0; i < cuts.length; i++) this.cuts[i] = Double.parseDouble(cuts[i]);
+        }
+
+        @Override
+        public int bucket(int u, int v, double w) {
+            int pos = Arrays.binarySearch(cuts, w);
+            int band = pos >= 0 ? pos + 1 : -pos - 1;
+            return Math.min(band >> Math.min(round - 1, 30), buckets - 1);
+        }
+    }
+
+    // Samples up to 'samples' weights, spread evenly over the input files (text or WeightedEdgeWritable
+    // SequenceFiles, reading each file from its start), and returns buckets-1 cut points at their quantiles
+    public static double[] sampleWeightCuts(Configuration conf, Path input, boolean sequenceFiles, int buckets, int samples) throws IOException {
+        FileSystem fs = input.getFileSystem(conf);
+        FileStatus[] files = fs.getFileStatus(input).isDirectory()
+                ? fs.listStatus(input, path -> !path.getName().startsWith("_") && !path.getName().startsWith("."))
+                : new FileStatus[]{fs.getFileStatus(input)};
+        int perFile = Math.max(1, samples / Math.max(1, files.length));
+        double[] weights = new double[perFile * files.length];
+        int n = 0;
+        WeightedEdgeWritable edge = new WeightedEdgeWritable();
+        for (FileStatus file : files) {
+            int taken = 0;
+            if (sequenceFiles) {
+                try (SequenceFile.Reader reader = new SequenceFile.Reader(conf, SequenceFile.Reader.file(file.getPath()))) {
+                    while (taken < perFile && reader.next(NullWritable.get(), edge)) {
+                        weights[n++] = edge.w;
+                        taken++;
+                    }
+                }
+            } else {
+                try (BufferedReader br = new BufferedReader(new InputStreamReader(fs.open(file.getPath()), StandardCharsets.UTF_8))) {
+                    String line;
+                    while (taken < perFile && (line = br.readLine()) != null) {
+                        if (line.trim().isEmpty()) continue;
+                        edge.parse(line);
+                        weights[n++] = edge.w;
+                        taken++;
+                    }
+                }
+            }
+        }
+        Arrays.sort(weights, 0, n);
+        if (n == 0) return new double[0];
+        double[] cuts = new double[Math.max(0, buckets - 1)];
+        for (int i = 0; i < cuts.length; i++) cuts[i] = weights[(int) ((long) (i + 1) * n / buckets)];
+        return cuts;
+    }
+}
@@ -0,0 +1,322 @@
+import java.io.*;
+import java.util.*;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IntWritable;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.Counters;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.hadoop.mapreduce.TaskCounter;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.SequenceFileOutputFormat;
+import org.apache.hadoop.util.GenericOptionsParser;
+
+/**
+ * Multi-round MapReduce MST with filtering-based recursion.
+ * Records total runtime and number of rounds taken, and per-round metrics through IterationMetrics.
+ * Only round 1 parses the text edge list; rounds hand WeightedEdgeWritable SequenceFiles to each
+ * other, and the global merge writes the final MST as text again.
+ */
+public class MSTMapReduce {
+    public static final String EDGE_COUNTER_GROUP = "MST";
+    public static final String EDGE_COUNTER = "EDGES";
+    // Set per job by the driver, so an edge lands in a different bucket every round
+    public static final String ROUND = "mst.round";
+    // filter (default): local-MST filtering rounds and a global merge; boruvka: BoruvkaMST
+    public static final String ENGINE = "mst.engine";
+    // Bytes a reducer may spend on its partition; when set, the partition count follows the remaining edges
+    public static final String REDUCER_MEMORY = "mst.reducer.memory";
+    // A round that removes less than this fraction of its input counts as stalled
+    public static final String MIN_SHRINK = "mst.min.shrink";
+    // Stalled rounds in a row before the filter engine gives up
+    public static final String STALL_ROUNDS = "mst.stall.rounds";
+    // Reducer footprint per edge: the EdgeList with doubling slack plus kruskalMST's ID, weight and order arrays
+    static final int BYTES_PER_EDGE = 64;
+
+    // Round 1 reads text lines, later rounds read the previous round's SequenceFile.
+    // The bucket comes from the EdgePartitioner chosen by mst.partitioner.
+    public static class EdgeMapper extends Mapper<Object, Writable, IntWritable, WeightedEdgeWritable> {
+        private EdgePartitioner partitioner;
+        private IntWritable bucketId = new IntWritable();
+        private WeightedEdgeWritable parsed = new WeightedEdgeWritable();
+
+        @Override
+        protected void setup(Context context) {
+            partitioner = EdgePartitioner.of(context.getConfiguration());
+        }
+
+        @Override
+        protected void map(Object key, Writable value, Context context) throws IOException, InterruptedException {
+            WeightedEdgeWritable edge;
+            if (value instanceof Text) {
+                parsed.parse(value.toString());
+                edge = parsed;
+            } else {
+                edge = (WeightedEdgeWritable) value;
+            }
+            bucketId.set(partitioner.bucket(edge.u, edge.v, edge.w));
+            context.write(bucketId, edge);
+        }
+    }
+
+    public static class LocalMSTReducer extends Reducer<IntWritable, WeightedEdgeWritable, NullWritable, WeightedEdgeWritable> {
+        private final WeightedEdgeWritable out = new WeightedEdgeWritable();
+        private final EdgeList edges = new EdgeList();
+
+        @Override
+        protected void reduce(IntWritable key, Iterable<WeightedEdgeWritable> values, Context context) throws IOException, InterruptedException {
+            edges.clear();
+            for (WeightedEdgeWritable e : values) edges.add(e.u, e.v, e.w);
+            for (int i : kruskalMST(edges)) {
+                out.set(edges.u[i], edges.v[i], edges.w[i]);
+                context.write(NullWritable.get(), out);
+                context.getCounter(EDGE_COUNTER_GROUP, EDGE_COUNTER).increment(1);
+            }
+        }
+    }
+
+    public static class GlobalMapper extends Mapper<NullWritable, WeightedEdgeWritable, IntWritable, WeightedEdgeWritable> {
+        private final static IntWritable oneKey = new IntWritable(0);
+        @Override
+        protected void map(NullWritable key, WeightedEdgeWritable value, Context context) throws IOException, InterruptedException {
+            context.write(oneKey, value);
+        }
+    }
+
+    // Writes the final MST as text, "u<TAB>v w" per edge
+    public static class GlobalReducer extends Reducer<IntWritable, WeightedEdgeWritable, Text, Text> {
+        private Text uOut = new Text(), vWOut = new Text();
+        private final EdgeList edges = new EdgeList();
+        @Override
+        protected void reduce(IntWritable key, Iterable<WeightedEdgeWritable> values, Context context) throws IOException, InterruptedException {
+            edges.clear();
+            for (WeightedEdgeWritable e : values) edges.add(e.u, e.v, e.w);
+            for (int i : kruskalMST(edges)) {
+                uOut.set(String.valueOf(edges.u[i]));
+                vWOut.set(edges.v[i] + " " + edges.w[i]);
+                context.write(uOut, vWOut);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        // -D options (e.g. -Dgraph.metrics.file=...) apply to every job
+        Configuration base = new Configuration();
+        args = new GenericOptionsParser(base, args).getRemainingArgs();
+        if (args.length < 3) {
+            System.err.println("Usage: MSTMapReduce [-D" + ENGINE + "=filter|boruvka]"
+                    + " [-D" + EdgePartitioner.PARTITIONER + "=hash|vertex|range|weight]"
+                    + " [-D" + EdgePartitioner.RANGE_BLOCK + "=<ids>] [-D" + REDUCER_MEMORY + "=<bytes>]"
+                    + " [-D" + MIN_SHRINK + "=<fraction>] [-D" + STALL_ROUNDS + "=<n>]"
+                    + " <input> <outputDir> <maxRounds> [partitions] [threshold]");
+            System.exit(2);
+        }
+        String input = args[0];
+        String baseOutput = args[1];
+        int maxRounds = Integer.parseInt(args[2]);
+        int partitions = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        long threshold = args.length > 4 ? Long.parseLong(args[4]) : 1000000L;
+
+        long programStart = System.currentTimeMillis();
+        IterationMetrics metrics = new IterationMetrics(base, new Path(baseOutput));
+        FileSystem fs = FileSystem.get(base);
+        String currentInput = input;
+        int roundsUsed = 0;
+
+        // Borůvka takes maxRounds as its phase limit and needs no threshold
+        if ("boruvka".equalsIgnoreCase(base.get(ENGINE, "filter").trim())) {
+            boolean done = BoruvkaMST.run(base, input, baseOutput, maxRounds, partitions, metrics);
+            long totalDur = System.currentTimeMillis() - programStart;
+            System.out.println((done ? "Completed" : "Stopped") + " Boruvka MST. Total runtime (ms): " + totalDur);
+            System.exit(done ? 0 : 1);
+        }
+
+        // The weight partitioner needs its cut points before the first round
+        base.setInt("mst.partitions", partitions);
+        if ("weight".equalsIgnoreCase(base.get(EdgePartitioner.PARTITIONER, "").trim()) && base.get(EdgePartitioner.WEIGHT_CUTS) == null) {
+            double[] cuts = EdgePartitioner.sampleWeightCuts(base, new Path(input), false, partitions,
+                    base.getInt(EdgePartitioner.WEIGHT_SAMPLES, 100000));
+            String[] values = new String[cuts.length];
+            for (int i = 0; i < cuts.length; i++) values[i] = Double.toString(cuts[i]);
+            base.setStrings(EdgePartitioner.WEIGHT_CUTS, values);
+        }
+
+        long reducerMemory = base.getLong(REDUCER_MEMORY, 0);
+        double minShrink = base.getDouble(MIN_SHRINK, 0.01);
+        int stallRounds = base.getInt(STALL_ROUNDS, 2);
+        int stalled = 0;
+
+        for (int round = 1; round <= maxRounds; round++) {
+            roundsUsed = round;
+            String tmpOut = baseOutput + "/round" + round;
+            Configuration conf = new Configuration(base);
+            conf.setInt("mst.partitions", partitions);
+            conf.setInt(ROUND, round);
+
+            Job job = Job.getInstance(conf, "Local MST Round " + round);
+            job.setJarByClass(MSTMapReduce.class);
+            job.setMapperClass(EdgeMapper.class);
+            job.setReducerClass(LocalMSTReducer.class);
+            job.setMapOutputKeyClass(IntWritable.class);
+            job.setMapOutputValueClass(WeightedEdgeWritable.class);
+            job.setOutputKeyClass(NullWritable.class);
+            job.setOutputValueClass(WeightedEdgeWritable.class);
+            if (round > 1) job.setInputFormatClass(SequenceFileInputFormat.class);
+            job.setOutputFormatClass(SequenceFileOutputFormat.class);
+            job.setNumReduceTasks(partitions);
+            FileInputFormat.addInputPath(job, new Path(currentInput));
+            FileOutputFormat.setOutputPath(job, new Path(tmpOut));
+
+            long roundStart = System.currentTimeMillis();
+            if (!job.waitForCompletion(true)) {
+                System.err.println("Round " + round + " failed.");
+                System.exit(1);
+            }
+            long roundDur = System.currentTimeMillis() - roundStart;
+            System.out.println("[INFO] Round " + round + " duration (ms): " + roundDur);
+            // The previous round's output is consumed; the caller's input is never deleted
+            if (round > 1) fs.delete(new Path(currentInput), true);
+
+            Counters ctrs = job.getCounters();
+            long edgeCount = ctrs.findCounter(EDGE_COUNTER_GROUP, EDGE_COUNTER).getValue();
+            long inputEdges = ctrs.findCounter(TaskCounter.MAP_INPUT_RECORDS).getValue();
+            long removed = inputEdges - edgeCount;
+            System.out.println("Round " + round + ": edges=" + edgeCount + " removed=" + removed + " partitions=" + partitions);
+            metrics.recordJob(round, job, roundDur, edgeCount);
+            boolean fitsOneReducer = reducerMemory > 0 && edgeCount * BYTES_PER_EDGE <= reducerMemory;
+            if (edgeCount <= threshold || fitsOneReducer) {
+                // final global merge
+                Path finalIn = new Path(tmpOut);
+                Path finalOut = new Path(baseOutput + "/final");
+                Job merge = Job.getInstance(new Configuration(base), "Global MST Merge");
+                merge.setJarByClass(MSTMapReduce.class);
+                merge.setMapperClass(GlobalMapper.class);
+                merge.setReducerClass(GlobalReducer.class);
+                merge.setMapOutputKeyClass(IntWritable.class);
+                merge.setMapOutputValueClass(WeightedEdgeWritable.class);
+                merge.setOutputKeyClass(Text.class);
+                merge.setOutputValueClass(Text.class);
+                merge.setInputFormatClass(SequenceFileInputFormat.class);
+                merge.setNumReduceTasks(1);
+                FileInputFormat.addInputPath(merge, finalIn);
+                FileOutputFormat.setOutputPath(merge, finalOut);
+
+                long mergeStart = System.currentTimeMillis();
+                if (!merge.waitForCompletion(true)) {
+                    System.err.println("Global merge failed; round " + round + " output is kept in " + tmpOut);
+                    System.exit(1);
+                }
+                fs.delete(finalIn, true);
+                long mergeDur = System.currentTimeMillis() - mergeStart;
+                System.out.println("[INFO] Global merge duration (ms): " + mergeDur);
+                metrics.recordJob(round + 1, merge, mergeDur, 0);
+
+                long totalDur = System.currentTimeMillis() - programStart;
+                System.out.println("Completed in " + roundsUsed + " rounds. Total runtime (ms): " + totalDur);
+                System.exit(0);
+            }
+            currentInput = tmpOut;
+
+            // Give up once rounds keep removing (almost) nothing instead of running to maxRounds
+            stalled = removed < minShrink * inputEdges ? stalled + 1 : 0;
+            if (stalled >= stallRounds) {
+                long totalDur = System.currentTimeMillis() - programStart;
+                System.err.println("Filtering stalled at " + edgeCount + " edges after " + round + " rounds (less than "
+                        + minShrink + " of the edges removed in " + stalled + " rounds in a row); try -D" + EdgePartitioner.PARTITIONER
+                        + "=vertex, fewer partitions or -D" + ENGINE + "=boruvka. Total runtime (ms): " + totalDur);
+                System.exit(1);
+            }
+
+            // Fewest partitions whose share of the remaining edges fits a reducer: bigger partitions filter more
+            if (reducerMemory > 0) {
+                partitions = (int) Math.max(1, Math.min(Integer.MAX_VALUE, (edgeCount * BYTES_PER_EDGE + reducerMemory - 1) / reducerMemory));
+            }
+        }
+        long totalDur = System.currentTimeMillis() - programStart;
+        System.err.println("Reached maxRounds (" + roundsUsed + ") without reducing below threshold. Total runtime (ms): " + totalDur);
+        System.exit(1);
+    }
+
+    // Kruskal + Union-Find over primitive arrays: a partition costs about 40 bytes per edge and no
+    // per-vertex objects, instead of an Edge object per edge plus boxed vertices in a HashSet and HashMap.
+
+    // Edges as parallel arrays, grown by doubling and reused across reduce calls
+    static class EdgeList {
+        int[] u = new int[1024], v = new int[1024];
+        double[] w = new double[1024];
+        int size;
+
+        void add(int a, int b, double weight) {
+            if (size == u.length) {
+                int cap = size * 2;
+                u = Arrays.copyOf(u, cap);
+                v = Arrays.copyOf(v, cap);
+                w = Arrays.copyOf(w, cap);
+            }
+            u[size] = a; v[size] = b; w[size] = weight;
+            size++;
+        }
+
+        void clear() { size = 0; }
+    }
+
+    // Indices of the MST (forest) edges in ascending weight order; equal weights keep their input order
+    static int[] kruskalMST(EdgeList edges) {
+        int m = edges.size;
+
+        // 1) Remap vertex IDs to 0..n-1 by their rank among the distinct endpoints
+        int[] ids = new int[2 * m];
+        System.arraycopy(edges.u, 0, ids, 0, m);
+        System.arraycopy(edges.v, 0, ids, m, m);
+        Arrays.parallelSort(ids);
+        int n = 0;
+        for (int i = 0; i < ids.length; i++) if (n == 0 || ids[i] != ids[n - 1]) ids[n++] = ids[i];
+
+        // 2) Sort edge indices by weight: rank of the weight in the high half, index in the low half
+        double[] sorted = Arrays.copyOf(edges.w, m);
+        Arrays.parallelSort(sorted);
+        long[] order = new long[m];
+        for (int i = 0; i < m; i++) order[i] = (long) Arrays.binarySearch(sorted, edges.w[i]) << 32 | i;
+        sorted = null;
+        Arrays.parallelSort(order);
+
+        // 3) Scan in weight order until the forest is complete
+        UnionFind uf = new UnionFind(n);
+        int[] mst = new int[Math.max(n - 1, 0)];
+        int size = 0;
+        for (int k = 0; k < m && size < mst.length; k++) {
+            int i = (int) order[k];
+            int a = Arrays.binarySearch(ids, 0, n, edges.u[i]), b = Arrays.binarySearch(ids, 0, n, edges.v[i]);
+            if (uf.union(a, b)) mst[size++] = i;
+        }
+        return size == mst.length ? mst : Arrays.copyOf(mst, size);
+    }
+
+    // Union by rank with iterative path compression, over dense IDs 0..n-1
+    static class UnionFind {
+        private final int[] parent;
+        private final byte[] rank;
+        UnionFind(int n) { parent = new int[n]; rank = new byte[n]; for (int i = 0; i < n; i++) parent[i] = i; }
+        int find(int x) {
+            int root = x;
+            while (parent[root] != root) root = parent[root];
+            while (parent[x] != root) { int next = parent[x]; parent[x] = root; x = next; }
+            return root;
+        }
+        boolean union(int a, int b) {
+            int ra = find(a), rb = find(b);
+            if (ra == rb) return false;
+            if (rank[ra] < rank[rb]) { int t = ra; ra = rb; rb = t; }
+            parent[rb] = ra;
+            if (rank[ra] == rank[rb]) rank[ra]++;
+            return true;
+        }
+    }
+}
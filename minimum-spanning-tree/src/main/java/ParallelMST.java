@@ -0,0 +1,166 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.util.GenericOptionsParser;
+
+/**
+ * Single-node MST for graphs that fit in memory: parallel Borůvka over edge arrays on a fork-join pool.
+ * Reads the same "u v w" / "u<TAB>v w" input as MSTMapReduce (a file or a directory of part files) and
+ * writes the MST (a spanning forest if the graph is disconnected) to outputDir/final/part-r-00000 as
+ * "u<TAB>v w" lines, without any Hadoop job.
+ *
+ * Each phase, every live edge offers itself to both endpoint components with a CAS minimum on
+ * (weight, edge index); every component then hooks along its lightest edge through a
+ * ConcurrentUnionFind, and edges inside a component are dropped. Ties are broken by input order,
+ * so the picked edges never close a cycle.
+ */
+public class ParallelMST {
+
+    public static void main(String[] args) throws Exception {
+        Configuration conf = new Configuration();
+        args = new GenericOptionsParser(conf, args).getRemainingArgs();
+        if (args.length < 2) {
+            System.err.println("Usage: ParallelMST <input> <outputDir> [threads]");
+            System.exit(2);
+        }
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        FileSystem fs = FileSystem.get(conf);
+        IterationMetrics metrics = new IterationMetrics(conf, new Path(args[1]));
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long programStart = System.currentTimeMillis();
+
+        try {
+            // 1) Read the edges and remap vertex IDs to 0..n-1
+            long start = System.currentTimeMillis();
+            MSTMapReduce.EdgeList edges = load(fs, new Path(args[0]));
+            int[] ids = remap(edges, pool);
+            metrics.recordStep(0, "Parallel MST Load", System.currentTimeMillis() - start, edges.size);
+
+            // 2) Borůvka phases
+            int[] mst = findMST(edges, ids.length, pool, metrics);
+
+            // 3) Write the MST with the original IDs
+            Path out = new Path(args[1], "final/part-r-00000");
+            try (BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(fs.create(out, true), StandardCharsets.UTF_8))) {
+                for (int i : mst) {
+                    bw.write(ids[edges.u[i]] + "\t" + ids[edges.v[i]] + " " + edges.w[i]);
+                    bw.newLine();
+                }
+            }
+            long totalDur = System.currentTimeMillis() - programStart;
+            System.out.println("Completed with " + mst.length + " MST edges. Total runtime (ms): " + totalDur);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Indices of the MST (forest) edges of the graph whose endpoints are 0..n-1, in the order the phases found them.
+     */
+    static int[] findMST(MSTMapReduce.EdgeList edges, int n, ForkJoinPool pool, IterationMetrics metrics) throws IOException {
+        int[] eu = edges.u, ev = edges.v;
+        double[] ew = edges.w;
+        ConcurrentUnionFind uf = new ConcurrentUnionFind(n);
+        AtomicIntegerArray best = new AtomicIntegerArray(n);
+        int[] mst = new int[Math.max(n - 1, 0)];
+        AtomicInteger mstSize = new AtomicInteger();
+
+        // Live edges; self-loops never belong to the MST
+        int[] live = new int[edges.size];
+        int m = 0;
+        for (int i = 0; i < edges.size; i++) if (eu[i] != ev[i]) live[m++] = i;
+
+        for (int phase = 1; m > 0; phase++) {
+            long start = System.currentTimeMillis();
+            int[] alive = live;
+            int liveCount = m;
+
+            // 1) lightest edge of every component
+            ParallelFor.run(pool, n, c -> best.set(c, -1));
+            ParallelFor.run(pool, liveCount, k -> {
+                int i = alive[k];
+                int a = uf.find(eu[i]), b = uf.find(ev[i]);
+                offer(best, a, i, ew);
+                offer(best, b, i, ew);
+            });
+
+            // 2) hook every component along it; a mutually picked edge only unions once
+            ParallelFor.run(pool, n, c -> {
+                int i = best.get(c);
+                if (i >= 0 && uf.union(eu[i], ev[i])) mst[mstSize.getAndIncrement()] = i;
+            });
+
+            // 3) drop the edges that are now inside a component
+            byte[] keep = new byte[liveCount];
+            ParallelFor.run(pool, liveCount, k -> {
+                int i = alive[k];
+                if (uf.find(eu[i]) != uf.find(ev[i])) keep[k] = 1;
+            });
+            m = 0;
+            for (int k = 0; k < liveCount; k++) if (keep[k] != 0) live[m++] = alive[k];
+
+            metrics.recordStep(phase, "Parallel MST Phase " + phase, System.currentTimeMillis() - start, m);
+            System.out.println("Phase " + phase + ": edges=" + m);
+        }
+        return Arrays.copyOf(mst, mstSize.get());
+    }
+
+    // CAS minimum on (weight, index)
+    private static void offer(AtomicIntegerArray best, int c, int i, double[] w) {
+        while (true) {
+            int cur = best.get(c);
+            if (cur >= 0) {
+                int cmp = Double.compare(w[i], w[cur]);
+                if (cmp > 0 || (cmp == 0 && i >= cur)) return;
+            }
+            if (best.compareAndSet(c, cur, i)) return;
+        }
+    }
+
+    // Replaces the endpoints with their rank among the distinct IDs; returns the rank -> ID table
+    static int[] remap(MSTMapReduce.EdgeList edges, ForkJoinPool pool) {
+        int m = edges.size;
+        int[] ids = new int[2 * m];
+        System.arraycopy(edges.u, 0, ids, 0, m);
+        System.arraycopy(edges.v, 0, ids, m, m);
+        Arrays.parallelSort(ids);
+        int n = 0;
+        for (int i = 0; i < ids.length; i++) if (n == 0 || ids[i] != ids[n - 1]) ids[n++] = ids[i];
+        int[] table = Arrays.copyOf(ids, n);
+        ParallelFor.run(pool, m, i -> {
+            edges.u[i] = Arrays.binarySearch(table, edges.u[i]);
+            edges.v[i] = Arrays.binarySearch(table, edges.v[i]);
+        });
+        return table;
+    }
+
+    static MSTMapReduce.EdgeList load(FileSystem fs, Path input) throws IOException {
+        FileStatus[] files = fs.getFileStatus(input).isDirectory()
+                ? fs.listStatus(input, path -> !path.getName().startsWith("_") && !path.getName().startsWith("."))
+                : new FileStatus[]{fs.getFileStatus(input)};
+        MSTMapReduce.EdgeList edges = new MSTMapReduce.EdgeList();
+        WeightedEdgeWritable edge = new WeightedEdgeWritable();
+        for (FileStatus file : files) {
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(fs.open(file.getPath()), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = br.readLine()) != null) {
+                    if (line.trim().isEmpty()) continue;
+                    edge.parse(line);
+                    edges.add(edge.u, edge.v, edge.w);
+                }
+            }
+        }
+        return edges;
+    }
+}
@@ -0,0 +1,91 @@
+import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.io.WritableComparator;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * An undirected weighted edge as a fixed 16-byte record: u and v as ints, the weight as a double.
+ * Orders by weight, then u, then v; the registered raw comparator does the same on the
+ * serialized bytes, so sorting by edge never deserializes.
+ */
+public class WeightedEdgeWritable implements WritableComparable<WeightedEdgeWritable> {
+    public int u, v;
+    public double w;
+
+    public WeightedEdgeWritable() {}
+
+    public WeightedEdgeWritable(int u, int v, double w) {
+        set(u, v, w);
+    }
+
+    public void set(int u, int v, double w) {
+        this.u = u;
+        this.v = v;
+        this.w = w;
+    }
+
+    // Parses "u v w" or "u<TAB>v w"
+    public void parse(String line) {
+        String[] p = line.trim().split("\\s+");
+        set(Integer.parseInt(p[0]), Integer.parseInt(p[1]), Double.parseDouble(p[2]));
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(u);
+        out.writeInt(v);
+        out.writeDouble(w);
+    }
+
+    @Override
+    public void readFields(DataInput in) throws IOException {
+        u = in.readInt();
+        v = in.readInt();
+        w = in.readDouble();
+    }
+
+    @Override
+    public int compareTo(WeightedEdgeWritable o) {
+        int c = Double.compare(w, o.w);
+        if (c != 0) return c;
+        c = Integer.compare(u, o.u);
+        return c != 0 ? c : Integer.compare(v, o.v);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof WeightedEdgeWritable)) return false;
+        WeightedEdgeWritable e = (WeightedEdgeWritable) o;
+        return u == e.u && v == e.v && Double.compare(w, e.w) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * u + v) * 31 + Double.hashCode(w);
+    }
+
+    @Override
+    public String toString() {
+        return u + "\t" + v + " " + w;
+    }
+
+    public static class Comparator extends WritableComparator {
+        public Comparator() {
+            super(WeightedEdgeWritable.class);
+        }
+
+        @Override
+        public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+            int c = Double.compare(readDouble(b1, s1 + 8), readDouble(b2, s2 + 8));
+            if (c != 0) return c;
+            c = Integer.compare(readInt(b1, s1), readInt(b2, s2));
+            return c != 0 ? c : Integer.compare(readInt(b1, s1 + 4), readInt(b2, s2 + 4));
+        }
+    }
+
+    static {
+        WritableComparator.define(WeightedEdgeWritable.class, new Comparator());
+    }
+}
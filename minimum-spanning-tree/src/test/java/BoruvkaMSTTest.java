@@ -0,0 +1,87 @@
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the Borůvka jobs on the local runner and compares the forest with MSTMapReduce.kruskalMST
+class BoruvkaMSTTest {
+
+    @TempDir
+    File dir;
+
+    private static Configuration localConf() {
+        Configuration conf = new Configuration();
+        conf.set("mapreduce.framework.name", "local");
+        conf.set("fs.defaultFS", "file:///");
+        return conf;
+    }
+
+    // n vertices in two halves with no edge between them, tied weights and a few self-loops
+    static MSTMapReduce.EdgeList randomGraph(long seed, int n, int m) {
+        Random rnd = new Random(seed);
+        MSTMapReduce.EdgeList edges = new MSTMapReduce.EdgeList();
+        for (int i = 0; i < m; i++) {
+            int half = rnd.nextInt(2) * (n / 2);
+            int u = half + rnd.nextInt(n / 2), v = i % 50 == 0 ? u : half + rnd.nextInt(n / 2);
+            edges.add(u, v, rnd.nextInt(20));
+        }
+        return edges;
+    }
+
+    static double kruskalWeight(MSTMapReduce.EdgeList edges) {
+        double sum = 0;
+        for (int i : MSTMapReduce.kruskalMST(edges)) sum += edges.w[i];
+        return sum;
+    }
+
+    static void writeEdges(MSTMapReduce.EdgeList edges, File file) throws IOException {
+        try (PrintWriter out = new PrintWriter(file)) {
+            for (int i = 0; i < edges.size; i++) out.println(edges.u[i] + " " + edges.v[i] + " " + edges.w[i]);
+        }
+    }
+
+    @Test
+    void matchesKruskal() throws Exception {
+        MSTMapReduce.EdgeList edges = randomGraph(7, 60, 300);
+        File input = new File(dir, "edges.txt");
+        writeEdges(edges, input);
+        File output = new File(dir, "out");
+        Configuration conf = localConf();
+
+        assertTrue(BoruvkaMST.run(conf, input.getPath(), output.getPath(), 20, 2,
+                new IterationMetrics(conf, new Path(output.getPath()))));
+
+        double weight = 0;
+        int count = 0;
+        for (File part : new File(output, "final").listFiles((d, name) -> name.startsWith("part-"))) {
+            for (String line : Files.readAllLines(part.toPath())) {
+                weight += Double.parseDouble(line.split("\\s+")[2]);
+                count++;
+            }
+        }
+        assertEquals(MSTMapReduce.kruskalMST(edges).length, count);
+        assertEquals(kruskalWeight(edges), weight, 1e-9);
+    }
+
+    @Test
+    void refusesExistingFinalDirectory() throws Exception {
+        File input = new File(dir, "edges.txt");
+        writeEdges(randomGraph(1, 10, 20), input);
+        File output = new File(dir, "out");
+        assertTrue(new File(output, "final").mkdirs());
+        Configuration conf = localConf();
+
+        assertFalse(BoruvkaMST.run(conf, input.getPath(), output.getPath(), 20, 1,
+                new IterationMetrics(conf, new Path(output.getPath()))));
+    }
+}
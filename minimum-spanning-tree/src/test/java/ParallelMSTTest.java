@@ -0,0 +1,37 @@
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// ParallelMST.findMST against MSTMapReduce.kruskalMST on random graphs with tied weights
+class ParallelMSTTest {
+
+    @TempDir
+    File dir;
+
+    @Test
+    void matchesKruskal() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            IterationMetrics metrics = new IterationMetrics(new Configuration(), new Path(dir.getPath()));
+            for (long seed = 0; seed < 20; seed++) {
+                MSTMapReduce.EdgeList edges = BoruvkaMSTTest.randomGraph(seed, 200, 1000);
+                double expected = BoruvkaMSTTest.kruskalWeight(edges);
+                int expectedSize = MSTMapReduce.kruskalMST(edges).length;
+
+                int[] ids = ParallelMST.remap(edges, pool);
+                int[] mst = ParallelMST.findMST(edges, ids.length, pool, metrics);
+                assertEquals(expectedSize, mst.length, "seed " + seed);
+                assertEquals(expected, Arrays.stream(mst).mapToDouble(i -> edges.w[i]).sum(), 1e-9, "seed " + seed);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,602 @@
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.SequenceFile;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.WritableComparable;
+import org.apache.hadoop.io.WritableComparator;
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.Counters;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.Mapper;
+import org.apache.hadoop.mapreduce.Partitioner;
+import org.apache.hadoop.mapreduce.Reducer;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.SequenceFileInputFormat;
+import org.apache.hadoop.mapreduce.lib.output.FileOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.LazyOutputFormat;
+import org.apache.hadoop.mapreduce.lib.output.MultipleOutputs;
+import org.apache.hadoop.mapreduce.lib.output.SequenceFileOutputFormat;
+import org.apache.hadoop.util.GenericOptionsParser;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+// Approximate maximum weight matching in weight classes (Crouch-Stubbs style): edges are bucketed by
+// ceil(log2(w + 1)) and the buckets are matched from heavy to light, each bucket only on the vertices the heavier
+// ones left free, so the union over all buckets is a valid matching. A bucket larger than -Dwm.slice.edges is
+// dealt out to several reducers; their greedy matchings may overlap, so two more jobs keep the candidates that are
+// the heaviest at both endpoints, and the rest of the bucket gets another pass until nothing in it can be matched.
+// A bucket takes at most -Dwm.max.passes passes: the last allowed one runs as a single slice, whose greedy matching
+// is final, so a bucket costs at most 3 * (max.passes - 1) + 1 jobs however slowly its slices agree.
+// The matched edges stay in SequenceFiles under _work; the driver only keeps their paths.
+public class AproximateWeighted {
+    // Edges one reducer should hold; a bucket gets ceil(edges / this) slices
+    public static final String SLICE_EDGES = "wm.slice.edges";
+    // Passes per bucket; the last one matches whatever is left in one reducer
+    public static final String MAX_PASSES = "wm.max.passes";
+    static final String SLICES = "wm.slices";
+    // Directories of the edges matched so far, for SliceMapper's filter
+    static final String MATCHED = "wm.matched";
+    static final String COUNTER_GROUP = "WeightedMatching";
+    // One counter per bucket, named by the bucket number
+    static final String BUCKET_COUNTER_GROUP = "WeightedBuckets";
+
+    public static class EdgeWritable implements WritableComparable<EdgeWritable> {
+        public int u, v;
+        public int weight;
+
+        public EdgeWritable() {}
+
+        public EdgeWritable(int u, int v, int weight) {
+            this.u = u;
+            this.v = v;
+            this.weight = weight;
+        }
+
+        @Override
+        public void write(DataOutput out) throws IOException {
+            out.writeInt(u);
+            out.writeInt(v);
+            out.writeInt(weight);
+        }
+
+        @Override
+        public void readFields(DataInput in) throws IOException {
+            u = in.readInt();
+            v = in.readInt();
+            weight = in.readInt();
+        }
+
+        // Heaviest first; ties by endpoints so distinct edges never compare equal
+        @Override
+        public int compareTo(EdgeWritable o) {
+            int c = Integer.compare(o.weight, weight);
+            if (c != 0) return c;
+            c = Integer.compare(u, o.u);
+            return c != 0 ? c : Integer.compare(v, o.v);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof EdgeWritable)) return false;
+            EdgeWritable e = (EdgeWritable) o;
+            return u == e.u && v == e.v && weight == e.weight;
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * u + v) * 31 + weight;
+        }
+
+        @Override
+        public String toString() {
+            return u + "\t" + v + "\t" + weight;
+        }
+
+        // compareTo on the serialized form (u, v, weight)
+        static int compare(byte[] b1, int s1, byte[] b2, int s2) {
+            int c = Integer.compare(WritableComparator.readInt(b2, s2 + 8), WritableComparator.readInt(b1, s1 + 8));
+            if (c != 0) return c;
+            c = Integer.compare(WritableComparator.readInt(b1, s1), WritableComparator.readInt(b2, s2));
+            return c != 0 ? c : Integer.compare(WritableComparator.readInt(b1, s1 + 4), WritableComparator.readInt(b2, s2 + 4));
+        }
+
+        public static class Comparator extends WritableComparator {
+            public Comparator() {
+                super(EdgeWritable.class);
+            }
+
+            @Override
+            public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+                return EdgeWritable.compare(b1, s1, b2, s2);
+            }
+        }
+
+        static {
+            WritableComparator.define(EdgeWritable.class, new Comparator());
+        }
+    }
+
+    // Shuffle key of a bucket pass: the slice, then the edge, so each slice reaches its reducer heaviest edge first.
+    // VertexBestMapper puts a vertex in the slice field to get each vertex's candidates heaviest first.
+    public static class SliceEdge implements WritableComparable<SliceEdge> {
+        public int slice;
+        public final EdgeWritable edge = new EdgeWritable();
+
+        @Override
+        public void write(DataOutput out) throws IOException {
+            out.writeInt(slice);
+            edge.write(out);
+        }
+
+        @Override
+        public void readFields(DataInput in) throws IOException {
+            slice = in.readInt();
+            edge.readFields(in);
+        }
+
+        @Override
+        public int compareTo(SliceEdge o) {
+            int c = Integer.compare(slice, o.slice);
+            return c != 0 ? c : edge.compareTo(o.edge);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SliceEdge && slice == ((SliceEdge) o).slice && edge.equals(((SliceEdge) o).edge);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * slice + edge.hashCode();
+        }
+
+        // Sorts the serialized keys without deserializing them
+        public static class Comparator extends WritableComparator {
+            public Comparator() {
+                super(SliceEdge.class);
+            }
+
+            @Override
+            public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+                int c = Integer.compare(readInt(b1, s1), readInt(b2, s2));
+                return c != 0 ? c : EdgeWritable.compare(b1, s1 + 4, b2, s2 + 4);
+            }
+        }
+
+        // One reduce call per slice
+        public static class GroupingComparator extends WritableComparator {
+            public GroupingComparator() {
+                super(SliceEdge.class);
+            }
+
+            @Override
+            public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+                return Integer.compare(readInt(b1, s1), readInt(b2, s2));
+            }
+        }
+
+        public static class SlicePartitioner extends Partitioner<SliceEdge, NullWritable> {
+            @Override
+            public int getPartition(SliceEdge key, NullWritable value, int numPartitions) {
+                return Math.floorMod(key.slice, numPartitions);
+            }
+        }
+
+        static {
+            WritableComparator.define(SliceEdge.class, new Comparator());
+        }
+    }
+
+    // Open-addressing set of ints with linear probing, for the matched vertices of a slice
+    static final class IntSet {
+        private static final int EMPTY = Integer.MIN_VALUE;
+        private int[] slots = newSlots(1 << 10);
+        private int size;
+        private boolean containsEmpty;
+
+        boolean contains(int id) {
+            if (id == EMPTY) return containsEmpty;
+            int mask = slots.length - 1;
+            for (int i = slot(id, mask); ; i = (i + 1) & mask) {
+                if (slots[i] == id) return true;
+                if (slots[i] == EMPTY) return false;
+            }
+        }
+
+        void add(int id) {
+            if (id == EMPTY) {
+                containsEmpty = true;
+                return;
+            }
+            int mask = slots.length - 1;
+            int i = slot(id, mask);
+            while (slots[i] != EMPTY) {
+                if (slots[i] == id) return;
+                i = (i + 1) & mask;
+            }
+            slots[i] = id;
+            // Keep the load factor at or below 1/2
+            if (++size * 2 > slots.length) rehash();
+        }
+
+        private void rehash() {
+            int[] old = slots;
+            slots = newSlots(old.length * 2);
+            int mask = slots.length - 1;
+            for (int id : old) {
+                if (id == EMPTY) continue;
+                int i = slot(id, mask);
+                while (slots[i] != EMPTY) i = (i + 1) & mask;
+                slots[i] = id;
+            }
+        }
+
+        private static int[] newSlots(int n) {
+            int[] slots = new int[n];
+            Arrays.fill(slots, EMPTY);
+            return slots;
+        }
+
+        // Fibonacci hashing, so sequential IDs spread over the table
+        private static int slot(int id, int mask) {
+            return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+    }
+
+    // Weight class of an edge; bucket b holds the weights in [2^(b-1), 2^b)
+    static int bucket(int w) {
+        return 32 - Integer.numberOfLeadingZeros(w);
+    }
+
+    // Load: parses "u<TAB>v[<TAB>w]" lines and writes each edge to buckets/bucket-<b>, counting the edges per bucket
+    public static class LoadMapper extends Mapper<Object, Text, NullWritable, EdgeWritable> {
+        private MultipleOutputs<NullWritable, EdgeWritable> out;
+
+        @Override
+        protected void setup(Context context) {
+            out = new MultipleOutputs<>(context);
+        }
+
+        @Override
+        public void map(Object key, Text value, Context context) throws IOException, InterruptedException {
+            String line = value.toString().trim();
+            if (line.isEmpty()) return;
+
+            String[] tokens = line.split("\\s+");
+
+            try {
+                int u = Integer.parseInt(tokens[0]);
+                int v = Integer.parseInt(tokens[1]);
+                int w = (tokens.length >= 3) ? Integer.parseInt(tokens[2]) : 1; // Default weight = 1
+
+                if (w <= 0 || u == v) return;
+
+                int bucket = bucket(w);
+                context.getCounter(BUCKET_COUNTER_GROUP, Integer.toString(bucket)).increment(1);
+                out.write(NullWritable.get(), new EdgeWritable(u, v, w), "bucket-" + bucket + "/part");
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                // Skip line
+            }
+        }
+
+        @Override
+        protected void cleanup(Context context) throws IOException, InterruptedException {
+            out.close();
+        }
+    }
+
+    // Drops the edges of the current bucket that touch an already matched vertex and deals the rest out to the slices
+    public static class SliceMapper extends Mapper<NullWritable, EdgeWritable, SliceEdge, NullWritable> {
+        private int[] matched;
+        private int slices;
+        private final SliceEdge outKey = new SliceEdge();
+
+        @Override
+        protected void setup(Context context) throws IOException {
+            Configuration conf = context.getConfiguration();
+            slices = conf.getInt(SLICES, 1);
+            matched = readMatchedVertices(conf);
+        }
+
+        @Override
+        public void map(NullWritable key, EdgeWritable e, Context context) throws IOException, InterruptedException {
+            if (Arrays.binarySearch(matched, e.u) >= 0 || Arrays.binarySearch(matched, e.v) >= 0) return;
+            outKey.slice = Math.floorMod(31 * e.u + e.v, slices);
+            outKey.edge.u = e.u;
+            outKey.edge.v = e.v;
+            outKey.edge.weight = e.weight;
+            context.write(outKey, NullWritable.get());
+            context.getCounter(COUNTER_GROUP, "BucketEdges").increment(1);
+        }
+    }
+
+    // Greedy matching of one slice: the matched edges are the candidates, the others go to leftover/ for the next pass.
+    // The edges arrive heaviest first in the key, so the slice is matched while streaming.
+    public static class SliceReducer extends Reducer<SliceEdge, NullWritable, NullWritable, EdgeWritable> {
+        private MultipleOutputs<NullWritable, EdgeWritable> out;
+        private boolean sliced;
+
+        @Override
+        protected void setup(Context context) {
+            out = new MultipleOutputs<>(context);
+            sliced = context.getConfiguration().getInt(SLICES, 1) > 1;
+        }
+
+        @Override
+        public void reduce(SliceEdge key, Iterable<NullWritable> values, Context context) throws IOException, InterruptedException {
+            IntSet matchedVertices = new IntSet();
+            // Iterating the values advances the key to the next edge
+            for (NullWritable ignored : values) {
+                EdgeWritable e = key.edge;
+                if (match(e, matchedVertices)) {
+                    context.write(NullWritable.get(), e);
+                    context.getCounter(COUNTER_GROUP, "Candidates").increment(1);
+                } else if (sliced) {
+                    // With a single slice every candidate is accepted, so nothing else in the bucket can be matched
+                    // later. Otherwise an edge beside a candidate that loses against another slice may still be.
+                    out.write(NullWritable.get(), e, "leftover/part");
+                    context.getCounter(COUNTER_GROUP, "Leftover").increment(1);
+                }
+            }
+        }
+
+        @Override
+        protected void cleanup(Context context) throws IOException, InterruptedException {
+            out.close();
+        }
+    }
+
+    // Resolution, step 1: every candidate to both its endpoints, keyed so that each vertex sees its heaviest first
+    public static class VertexBestMapper extends Mapper<NullWritable, EdgeWritable, SliceEdge, NullWritable> {
+        private final SliceEdge outKey = new SliceEdge();
+
+        @Override
+        public void map(NullWritable key, EdgeWritable e, Context context) throws IOException, InterruptedException {
+            outKey.edge.u = e.u;
+            outKey.edge.v = e.v;
+            outKey.edge.weight = e.weight;
+            outKey.slice = e.u;
+            context.write(outKey, NullWritable.get());
+            outKey.slice = e.v;
+            context.write(outKey, NullWritable.get());
+        }
+    }
+
+    // The heaviest candidate at each vertex
+    public static class VertexBestReducer extends Reducer<SliceEdge, NullWritable, NullWritable, EdgeWritable> {
+        @Override
+        public void reduce(SliceEdge key, Iterable<NullWritable> values, Context context) throws IOException, InterruptedException {
+            context.write(NullWritable.get(), key.edge);
+        }
+    }
+
+    // Resolution, step 2: a candidate is matched when it was the heaviest at both endpoints. The heaviest remaining
+    // candidate always is, so every sliced pass matches at least one edge.
+    public static class AgreeMapper extends Mapper<NullWritable, EdgeWritable, EdgeWritable, NullWritable> {
+        @Override
+        public void map(NullWritable key, EdgeWritable e, Context context) throws IOException, InterruptedException {
+            context.write(e, NullWritable.get());
+        }
+    }
+
+    public static class AgreeReducer extends Reducer<EdgeWritable, NullWritable, NullWritable, EdgeWritable> {
+        @Override
+        public void reduce(EdgeWritable e, Iterable<NullWritable> values, Context context) throws IOException, InterruptedException {
+            int picks = 0;
+            for (NullWritable ignored : values) picks++;
+            if (picks < 2) return;
+            context.write(NullWritable.get(), e);
+            context.getCounter(COUNTER_GROUP, "Accepted").increment(1);
+        }
+    }
+
+    // Writes the matched edges as "u<TAB>v<TAB>weight=w" lines
+    public static class WriteMapper extends Mapper<NullWritable, EdgeWritable, Text, Text> {
+        private final Text edge = new Text();
+        private final Text weight = new Text();
+
+        @Override
+        public void map(NullWritable key, EdgeWritable e, Context context) throws IOException, InterruptedException {
+            edge.set(e.u + "\t" + e.v);
+            weight.set("weight=" + e.weight);
+            context.write(edge, weight);
+            context.getCounter(COUNTER_GROUP, "MatchedEdges").increment(1);
+            context.getCounter(COUNTER_GROUP, "MatchedWeight").increment(e.weight);
+        }
+    }
+
+    // Takes e into the matching if both endpoints are still free
+    private static boolean match(EdgeWritable e, IntSet matchedVertices) {
+        if (matchedVertices.contains(e.u) || matchedVertices.contains(e.v)) return false;
+        matchedVertices.add(e.u);
+        matchedVertices.add(e.v);
+        return true;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Configuration conf = new Configuration();
+        args = new GenericOptionsParser(conf, args).getRemainingArgs();
+        if (args.length != 2) {
+            System.err.println("Usage: AproximateWeighted [-D" + SLICE_EDGES + "=<edges>] [-D" + MAX_PASSES + "=<n>] <input> <outputDir>");
+            System.exit(2);
+        }
+        FileSystem fs = FileSystem.get(conf);
+        Path output = new Path(args[1]);
+        if (fs.exists(output)) {
+            System.err.println("Output directory " + output + " already exists.");
+            System.exit(1);
+        }
+        // Intermediate data lives under _work, which input formats skip; the matching is written as part-* files
+        Path work = new Path(output, "_work");
+        long sliceEdges = conf.getLong(SLICE_EDGES, 1_000_000);
+        int maxPasses = Math.max(1, conf.getInt(MAX_PASSES, 4));
+        long programStart = System.currentTimeMillis();
+
+        // 1) Load: split the edges into weight buckets
+        Job load = Job.getInstance(conf, "Weighted Matching - Load");
+        load.setJarByClass(AproximateWeighted.class);
+        load.setMapperClass(LoadMapper.class);
+        load.setNumReduceTasks(0);
+        load.setOutputKeyClass(NullWritable.class);
+        load.setOutputValueClass(EdgeWritable.class);
+        LazyOutputFormat.setOutputFormatClass(load, SequenceFileOutputFormat.class);
+        FileInputFormat.addInputPath(load, new Path(args[0]));
+        FileOutputFormat.setOutputPath(load, new Path(work, "buckets"));
+        run(load, "Load");
+        TreeMap<Integer, Long> bucketSizes = new TreeMap<>(Comparator.reverseOrder());
+        for (Counter c : load.getCounters().getGroup(BUCKET_COUNTER_GROUP)) {
+            bucketSizes.put(Integer.parseInt(c.getName()), c.getValue());
+        }
+
+        // 2) Buckets from heavy to light. Every pass filters the bucket against the edges matched so far and matches
+        // each slice greedily; a sliced pass then resolves the slices' candidates in two more jobs.
+        List<String> matchedDirs = new ArrayList<>();
+        int round = 0;
+        for (Map.Entry<Integer, Long> bucket : bucketSizes.entrySet()) {
+            List<Path> inputs = Collections.singletonList(new Path(work, "buckets/bucket-" + bucket.getKey()));
+            Path previous = null;
+            long edges = bucket.getValue();
+            for (int pass = 1; edges > 0; pass++) {
+                round++;
+                // The last allowed pass takes the rest of the bucket in one slice
+                int slices = pass >= maxPasses ? 1 : (int) Math.max(1, Math.min(Integer.MAX_VALUE, (edges + sliceEdges - 1) / sliceEdges));
+                String name = "Bucket " + bucket.getKey() + " Pass " + pass;
+                Path passOut = new Path(work, "pass-" + round);
+
+                Configuration passConf = new Configuration(conf);
+                passConf.setInt(SLICES, slices);
+                passConf.setStrings(MATCHED, matchedDirs.toArray(new String[0]));
+                Job job = newJob(passConf, "Weighted Matching - " + name, inputs, passOut, slices);
+                job.setMapperClass(SliceMapper.class);
+                job.setReducerClass(SliceReducer.class);
+                job.setMapOutputKeyClass(SliceEdge.class);
+                job.setMapOutputValueClass(NullWritable.class);
+                job.setPartitionerClass(SliceEdge.SlicePartitioner.class);
+                job.setGroupingComparatorClass(SliceEdge.GroupingComparator.class);
+                run(job, name);
+                Counters ctrs = job.getCounters();
+                long candidates = ctrs.findCounter(COUNTER_GROUP, "Candidates").getValue();
+                if (previous != null) fs.delete(previous, true);
+                previous = null;
+
+                Path candidatesGlob = new Path(passOut, "part-*");
+                long accepted = candidates;
+                if (slices == 1) {
+                    // One slice: its greedy matching is final and nothing is left over
+                    matchedDirs.add(passOut.toString());
+                    edges = 0;
+                } else {
+                    Path best = new Path(work, "best-" + round);
+                    Job bestJob = newJob(conf, "Weighted Matching - " + name + " Vertex Best", Collections.singletonList(candidatesGlob), best, slices);
+                    bestJob.setMapperClass(VertexBestMapper.class);
+                    bestJob.setReducerClass(VertexBestReducer.class);
+                    bestJob.setMapOutputKeyClass(SliceEdge.class);
+                    bestJob.setMapOutputValueClass(NullWritable.class);
+                    bestJob.setPartitionerClass(SliceEdge.SlicePartitioner.class);
+                    bestJob.setGroupingComparatorClass(SliceEdge.GroupingComparator.class);
+                    run(bestJob, name + " vertex best");
+
+                    Path matchedOut = new Path(work, "matched-" + round);
+                    Job agreeJob = newJob(conf, "Weighted Matching - " + name + " Agree", Collections.singletonList(best), matchedOut, slices);
+                    agreeJob.setMapperClass(AgreeMapper.class);
+                    agreeJob.setReducerClass(AgreeReducer.class);
+                    agreeJob.setMapOutputKeyClass(EdgeWritable.class);
+                    agreeJob.setMapOutputValueClass(NullWritable.class);
+                    run(agreeJob, name + " agree");
+                    fs.delete(best, true);
+                    matchedDirs.add(matchedOut.toString());
+                    accepted = agreeJob.getCounters().findCounter(COUNTER_GROUP, "Accepted").getValue();
+
+                    // The leftover and the candidates that lost go to the next pass, whose filter drops what is now matched
+                    Path leftover = new Path(passOut, "leftover");
+                    inputs = fs.exists(leftover) ? Arrays.asList(leftover, candidatesGlob) : Collections.singletonList(candidatesGlob);
+                    previous = passOut;
+                    edges = ctrs.findCounter(COUNTER_GROUP, "Leftover").getValue() + candidates - accepted;
+                }
+                System.out.println("Bucket " + bucket.getKey() + " pass " + pass + ": edges="
+                        + ctrs.findCounter(COUNTER_GROUP, "BucketEdges").getValue() + " slices=" + slices
+                        + " candidates=" + candidates + " accepted=" + accepted);
+            }
+            if (previous != null) fs.delete(previous, true);
+        }
+
+        // 3) Write the matching: every matched edge as "u<TAB>v<TAB>weight=w", then move the part files to the output
+        Path written = new Path(work, "matching");
+        Job write = Job.getInstance(conf, "Weighted Matching - Write");
+        write.setJarByClass(AproximateWeighted.class);
+        write.setMapperClass(WriteMapper.class);
+        write.setNumReduceTasks(0);
+        write.setInputFormatClass(SequenceFileInputFormat.class);
+        write.setOutputKeyClass(Text.class);
+        write.setOutputValueClass(Text.class);
+        for (String dir : matchedDirs) FileInputFormat.addInputPath(write, new Path(dir, "part-*"));
+        FileOutputFormat.setOutputPath(write, written);
+        long matchingSize = 0, matchingWeight = 0;
+        if (!matchedDirs.isEmpty()) {
+            run(write, "Write");
+            for (FileStatus part : fs.listStatus(written, path -> path.getName().startsWith("part-"))) {
+                fs.rename(part.getPath(), new Path(output, part.getPath().getName()));
+            }
+            matchingSize = write.getCounters().findCounter(COUNTER_GROUP, "MatchedEdges").getValue();
+            matchingWeight = write.getCounters().findCounter(COUNTER_GROUP, "MatchedWeight").getValue();
+        }
+        fs.delete(work, true);
+
+        long totalDur = System.currentTimeMillis() - programStart;
+        System.out.println("Matched " + matchingSize + " edges of total weight " + matchingWeight + " in " + round
+                + " rounds. Total runtime (ms): " + totalDur);
+    }
+
+    // A job over the EdgeWritable SequenceFiles in inputs that writes EdgeWritable SequenceFiles to output
+    private static Job newJob(Configuration conf, String name, List<Path> inputs, Path output, int reducers) throws IOException {
+        Job job = Job.getInstance(conf, name);
+        job.setJarByClass(AproximateWeighted.class);
+        job.setNumReduceTasks(reducers);
+        job.setInputFormatClass(SequenceFileInputFormat.class);
+        job.setOutputKeyClass(NullWritable.class);
+        job.setOutputValueClass(EdgeWritable.class);
+        job.setOutputFormatClass(SequenceFileOutputFormat.class);
+        for (Path input : inputs) FileInputFormat.addInputPath(job, input);
+        FileOutputFormat.setOutputPath(job, output);
+        return job;
+    }
+
+    private static void run(Job job, String name) throws Exception {
+        if (!job.waitForCompletion(true)) {
+            System.err.println(name + " failed.");
+            System.exit(1);
+        }
+    }
+
+    // The endpoints of the edges in the MATCHED directories, sorted and distinct, for SliceMapper's binary search
+    static int[] readMatchedVertices(Configuration conf) throws IOException {
+        String[] dirs = conf.getStrings(MATCHED, new String[0]);
+        int[] vertices = new int[1 << 10];
+        int size = 0;
+        NullWritable key = NullWritable.get();
+        EdgeWritable e = new EdgeWritable();
+        for (String dir : dirs) {
+            Path path = new Path(dir);
+            FileSystem fs = path.getFileSystem(conf);
+            for (FileStatus status : fs.listStatus(path, p -> p.getName().startsWith("part-"))) {
+                try (SequenceFile.Reader reader = new SequenceFile.Reader(conf, SequenceFile.Reader.file(status.getPath()))) {
+                    while (reader.next(key, e)) {
+                        if (size + 2 > vertices.length) vertices = Arrays.copyOf(vertices, vertices.length * 2);
+                        vertices[size++] = e.u;
+                        vertices[size++] = e.v;
+                    }
+                }
+            }
+        }
+        Arrays.sort(vertices, 0, size);
+        int n = 0;
+        for (int i = 0; i < size; i++) if (n == 0 || vertices[i] != vertices[n - 1]) vertices[n++] = vertices[i];
+        return Arrays.copyOf(vertices, n);
+    }
+}